@@ -1,6 +1,15 @@
 package com.charly.accounts;
 
+import com.charly.accounts.aggregation.AggregationProperties;
 import com.charly.accounts.dto.AccountContactInfoDto;
+import com.charly.accounts.generator.NumberGeneratorProperties;
+import com.charly.accounts.idempotency.IdempotencyProperties;
+import com.charly.accounts.loadbalancer.LatencyAwareLoadBalancerConfiguration;
+import com.charly.accounts.loadbalancer.LoadBalancingProperties;
+import com.charly.accounts.outbox.OutboxProperties;
+import com.charly.accounts.readmodel.ReadModelProperties;
+import com.charly.accounts.service.client.DownstreamCacheProperties;
+import com.charly.accounts.sql.SqlObservabilityProperties;
 import io.swagger.v3.oas.annotations.ExternalDocumentation;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.info.Contact;
@@ -8,13 +17,15 @@ import io.swagger.v3.oas.annotations.info.Info;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 
 @SpringBootApplication
 @EnableFeignClients
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
 @EnableJpaAuditing(auditorAwareRef = "auditAwareImpl")
-@EnableConfigurationProperties(value = {AccountContactInfoDto.class})
+@EnableConfigurationProperties(value = {AccountContactInfoDto.class, AggregationProperties.class, DownstreamCacheProperties.class, NumberGeneratorProperties.class, IdempotencyProperties.class, LoadBalancingProperties.class, OutboxProperties.class, ReadModelProperties.class, SqlObservabilityProperties.class})
 @OpenAPIDefinition(info = @Info(title = "Accounts microservice REST API Documentation", description = "EazyBank Accounts microservice REST API Documentation", version = "v1", contact = @Contact(name = "Charly Micolas", email = "charlymicolas21@gmail.com")), externalDocs = @ExternalDocumentation(description = "EazyBank Accounts microservice REST API Documentation", url = "https://www.eazybytes.com/swagger-ui.html"))
 class AccountsApplication {
 
@@ -0,0 +1,57 @@
+package com.charly.accounts.aggregation;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "aggregation")
+public class AggregationProperties {
+
+    /**
+     * Number of threads kept alive for downstream calls.
+     */
+    private int corePoolSize = 16;
+
+    /**
+     * Upper bound of concurrent downstream calls.
+     */
+    private int maxPoolSize = 64;
+
+    /**
+     * Calls queued once every core thread is busy. When the queue and the pool are both
+     * full further calls are rejected and their sections served as stale or missing.
+     */
+    private int queueCapacity = 256;
+
+    /**
+     * Deadline applied to every downstream call without an entry in {@link #budgets}.
+     */
+    private Duration callTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Connect timeout of the downstream calls, blocking and non-blocking alike.
+     */
+    private Duration connectTimeout = Duration.ofSeconds(1);
+
+    /**
+     * Latency budget per downstream service name, e.g. {@code loans: 300ms}. Also the read timeout of the Feign calls
+     * to that service, since a blocked call can not be cancelled.
+     */
+    private Map<String, Duration> budgets = new HashMap<>();
+
+    /**
+     * When enabled a downstream that misses its budget or fails leaves its section empty
+     * instead of failing the whole response.
+     */
+    private boolean partialResults = true;
+
+    public Duration budgetFor(String service) {
+        return budgets.getOrDefault(service, callTimeout);
+    }
+}
@@ -0,0 +1,178 @@
+package com.charly.accounts.aggregation;
+
+import com.charly.accounts.exception.DownstreamTimeoutException;
+import com.charly.accounts.exception.DownstreamUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs downstream calls concurrently on a bounded pool, each within the latency budget of its service. A call that
+ * finds the pool and its queue full is rejected rather than run on the request thread, where no budget could cut it
+ * short.
+ * With {@code spring.threads.virtual.enabled} every call gets its own virtual thread instead. No concurrency limit is
+ * applied then: a caller waiting for a slot would spend its budget before the call even starts, so the per-service
+ * budgets alone bound how long calls hold on to their threads.
+ */
+@Component
+public class FanOutExecutor implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(FanOutExecutor.class);
+
+    private static final String CALL_TIMER = "downstream.calls";
+
+    private static final String THREAD_NAME_PREFIX = "fan-out-";
+
+    private final Executor executor;
+
+    private final AggregationProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    public FanOutExecutor(AggregationProperties properties, MeterRegistry meterRegistry, Environment environment) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.executor = Threading.VIRTUAL.isActive(environment) ? virtualThreadExecutor() : platformThreadPool(properties);
+    }
+
+    private static Executor platformThreadPool(AggregationProperties properties) {
+        return new ThreadPoolExecutor(properties.getCorePoolSize(), properties.getMaxPoolSize(), 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()), new CustomizableThreadFactory(THREAD_NAME_PREFIX),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    private static Executor virtualThreadExecutor() {
+        SimpleAsyncTaskExecutor virtualThreads = new SimpleAsyncTaskExecutor(THREAD_NAME_PREFIX);
+        virtualThreads.setVirtualThreads(true);
+        return virtualThreads;
+    }
+
+    /**
+     * Starts the given call and fails the returned future once the budget of the service elapses, or right away when
+     * the pool rejects the call. The call is timed as {@code downstream.calls}, tagged with the service and whether it
+     * succeeded, failed, ran out of budget or was rejected.
+     *
+     * @param service - name of the downstream service
+     * @param call    - downstream call to run
+     * @return future completed with the call result
+     */
+    public <T> CompletableFuture<T> submit(String service, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        CompletableFuture<T> future;
+        try {
+            future = CompletableFuture.supplyAsync(call, executor)
+                    .orTimeout(properties.budgetFor(service).toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ex) {
+            future = CompletableFuture.failedFuture(ex);
+        }
+        future.whenComplete((result, failure) -> sample.stop(Timer.builder(CALL_TIMER)
+                .tag("service", service)
+                .tag("outcome", outcome(failure))
+                .register(meterRegistry)));
+        return future;
+    }
+
+    private static String outcome(Throwable failure) {
+        if (failure == null) {
+            return "success";
+        }
+        Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+        if (cause instanceof RejectedExecutionException) {
+            return "rejected";
+        }
+        return cause instanceof TimeoutException ? "timeout" : "error";
+    }
+
+    /**
+     * Completes immediately with the cached value when there is one, otherwise behaves like
+     * {@link #submit(String, Supplier)}. Saves the pool hop for cache hits.
+     *
+     * @param service - name of the downstream service
+     * @param cached  - supplies the cached value without calling the service, may return null
+     * @param call    - downstream call to run on a miss
+     * @return future completed with the cached value or the call result
+     */
+    public <T> CompletableFuture<T> submitIfAbsent(String service, Supplier<T> cached, Supplier<T> call) {
+        T value = cached.get();
+        return value != null ? CompletableFuture.completedFuture(value) : submit(service, call);
+    }
+
+    /**
+     * Waits for the given call and rethrows its failure unwrapped.
+     *
+     * @param future  - future returned by {@link #submit(String, Supplier)}
+     * @param service - name of the downstream service
+     * @return result of the call
+     */
+    public <T> T join(CompletableFuture<T> future, String service) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + service, ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause() instanceof CompletionException ? ex.getCause().getCause() : ex.getCause();
+            if (cause instanceof TimeoutException) {
+                throw new DownstreamTimeoutException(service, properties.budgetFor(service));
+            }
+            if (cause instanceof RejectedExecutionException) {
+                throw new DownstreamUnavailableException(service);
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Waits for the given call. With partial results enabled a failed, late or rejected call yields a
+     * {@link com.charly.accounts.dto.SectionStatus#STALE} section holding the last known value,
+     * or a {@link com.charly.accounts.dto.SectionStatus#MISSING} one when nothing is known.
+     *
+     * @param future    - future returned by {@link #submit(String, Supplier)}
+     * @param service   - name of the downstream service
+     * @param lastKnown - supplies the last known value without calling the service, may return null
+     * @return result of the call together with its status
+     */
+    public <T> SectionResult<T> joinSection(CompletableFuture<T> future, String service, Supplier<T> lastKnown) {
+        if (!properties.isPartialResults()) {
+            return SectionResult.available(join(future, service));
+        }
+        try {
+            return SectionResult.available(join(future, service));
+        } catch (RuntimeException ex) {
+            log.warn("Serving response without {} section: {}", service, ex.getMessage());
+            future.cancel(true);
+            T value = lastKnown.get();
+            return value != null ? SectionResult.stale(value) : SectionResult.missing();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (executor instanceof ThreadPoolExecutor threadPool) {
+            threadPool.shutdownNow();
+        } else if (executor instanceof SimpleAsyncTaskExecutor virtualThreads) {
+            virtualThreads.close();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.charly.accounts.aggregation;
+
+import com.charly.accounts.dto.SectionStatus;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class SectionResult<T> {
+
+    private final T value;
+
+    private final SectionStatus status;
+
+    public static <T> SectionResult<T> available(T value) {
+        return new SectionResult<>(value, SectionStatus.AVAILABLE);
+    }
+
+    public static <T> SectionResult<T> stale(T value) {
+        return new SectionResult<>(value, SectionStatus.STALE);
+    }
+
+    public static <T> SectionResult<T> missing() {
+        return new SectionResult<>(null, SectionStatus.MISSING);
+    }
+}
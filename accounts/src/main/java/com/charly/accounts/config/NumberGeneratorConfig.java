@@ -0,0 +1,25 @@
+package com.charly.accounts.config;
+
+import com.charly.accounts.generator.BlockSequenceNumberGenerator;
+import com.charly.accounts.generator.NumberGenerator;
+import com.charly.accounts.generator.NumberGeneratorProperties;
+import com.charly.accounts.generator.SequenceBlockAllocator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class NumberGeneratorConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(name = "accountNumberGenerator")
+    public NumberGenerator accountNumberGenerator(SequenceBlockAllocator allocator, NumberGeneratorProperties properties) {
+        return new BlockSequenceNumberGenerator("account_number", properties.getBlockSize(), allocator);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(name = "customerIdGenerator")
+    public NumberGenerator customerIdGenerator(SequenceBlockAllocator allocator, NumberGeneratorProperties properties) {
+        return new BlockSequenceNumberGenerator("customer_id", properties.getBlockSize(), allocator);
+    }
+}
@@ -0,0 +1,34 @@
+package com.charly.accounts.config;
+
+import com.charly.accounts.outbox.EventBroker;
+import com.charly.accounts.outbox.FileEventBroker;
+import com.charly.accounts.outbox.InMemoryEventBroker;
+import com.charly.accounts.outbox.OutboxProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class OutboxConfig {
+
+    /**
+     * Local brokers for development and tests, both back off when another broker is defined.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(name = "outbox.broker", havingValue = "file")
+    public EventBroker fileEventBroker(OutboxProperties properties, ObjectMapper objectMapper) {
+        return new FileEventBroker(Path.of(properties.getDirectory()), objectMapper);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(name = "outbox.broker", havingValue = "memory", matchIfMissing = true)
+    public EventBroker inMemoryEventBroker(OutboxProperties properties) {
+        return new InMemoryEventBroker(properties.getMemoryRetention());
+    }
+}
@@ -10,6 +10,19 @@ public class AccountConstant {
     public static final String STATUS_417 = "417";
     public static final String MESSAGE_417_UPDATE = "Update operation failed. Please try again or contact Dev team";
     public static final String MESSAGE_417_DELETE = "Delete operation failed. Please try again or contact Dev team";
+    public static final int MAX_BATCH_SIZE = 1000;
+    public static final String ACCOUNT_EVENTS = "accounts";
+    public static final String LOAN_EVENTS = "loans";
+    public static final String CARD_EVENTS = "cards";
+    public static final int MAX_BULK_SIZE = 5000;
+    public static final int BULK_CHUNK_SIZE = 500;
+    public static final String MESSAGE_BULK_RECORD_FAILED = "Customer could not be created. Please try again or contact Dev team";
+    public static final String DEFAULT_PAGE_SIZE = "100";
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final String LOANS_SERVICE = "loans";
+    public static final String CARDS_SERVICE = "cards";
+    public static final String LOANS_BATCH = "loans-batch";
+    public static final String CARDS_BATCH = "cards-batch";
 
     private AccountConstant() {
         // restrict instantiation
@@ -2,9 +2,13 @@ package com.charly.accounts.controller;
 
 import com.charly.accounts.constant.AccountConstant;
 import com.charly.accounts.dto.AccountContactInfoDto;
+import com.charly.accounts.dto.BulkResponseDto;
 import com.charly.accounts.dto.CustomerDto;
 import com.charly.accounts.dto.ErrorResponseDto;
+import com.charly.accounts.dto.PageDto;
 import com.charly.accounts.dto.ResponseDto;
+import com.charly.accounts.etag.Versioned;
+import com.charly.accounts.idempotency.IdempotentRequests;
 import com.charly.accounts.service.AccountService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,8 +16,13 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
@@ -22,7 +31,12 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.util.List;
+
+import static com.charly.accounts.idempotency.IdempotentRequests.IDEMPOTENCY_KEY_HEADER;
 import static com.charly.accounts.constant.AccountConstant.*;
 import static org.springframework.http.HttpStatus.EXPECTATION_FAILED;
 
@@ -34,6 +48,8 @@ public class AccountController {
 
     private final AccountService accountService;
 
+    private final IdempotentRequests idempotentRequests;
+
     @Value("${build.version}")
     private String buildVersion;
 
@@ -43,28 +59,60 @@ public class AccountController {
     @Autowired
     private AccountContactInfoDto accountContactInfoDto;
 
-    public AccountController(AccountService accountService) {
+    public AccountController(AccountService accountService, IdempotentRequests idempotentRequests) {
         this.accountService = accountService;
+        this.idempotentRequests = idempotentRequests;
     }
 
     @Operation(summary = "Create Account REST API", description = "REST API to create new Customer &  Account inside EazyBank")
-    @ApiResponses({@ApiResponse(responseCode = "201", description = "HTTP Status CREATED"), @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))})
+    @ApiResponses({@ApiResponse(responseCode = "201", description = "HTTP Status CREATED"), @ApiResponse(responseCode = "409", description = "HTTP Status Conflict", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))), @ApiResponse(responseCode = "422", description = "HTTP Status Unprocessable Entity", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))), @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))})
     @PostMapping()
-    public ResponseEntity<ResponseDto> createAccount(@Valid @RequestBody CustomerDto customerDto) {
+    public ResponseEntity<ResponseDto> createAccount(@Valid @RequestBody CustomerDto customerDto, @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) @Size(max = 255, message = "Idempotency key can be at most 255 characters") String idempotencyKey) {
+
+        return idempotentRequests.execute("createAccount", idempotencyKey, customerDto, () -> {
+            accountService.createAccount(customerDto);
+            return ResponseEntity.status(HttpStatus.CREATED).body(new ResponseDto(STATUS_201, MESSAGE_201));
+        });
+    }
+
+    @Operation(summary = "Bulk Create Account REST API", description = "REST API to create many Customers & Accounts in one call. Records are validated one by one and the ones that could not be created are reported with their reason")
+    @ApiResponses({@ApiResponse(responseCode = "200", description = "HTTP Status OK"), @ApiResponse(responseCode = "409", description = "HTTP Status Conflict", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))), @ApiResponse(responseCode = "422", description = "HTTP Status Unprocessable Entity", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))), @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))})
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkResponseDto> createAccounts(@RequestBody @NotEmpty(message = "Customers can not be empty") @Size(max = MAX_BULK_SIZE, message = "At most 5000 customers can be created at once") List<CustomerDto> customerDtos, @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) @Size(max = 255, message = "Idempotency key can be at most 255 characters") String idempotencyKey) {
 
-        accountService.createAccount(customerDto);
+        return idempotentRequests.execute("createAccounts", idempotencyKey, customerDtos, () -> {
+            BulkResponseDto bulkResponseDto = accountService.createAccounts(customerDtos);
+            return ResponseEntity.status(HttpStatus.OK).body(bulkResponseDto);
+        });
+    }
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(new ResponseDto(STATUS_201, MESSAGE_201));
+    @Operation(summary = "List Customers & Accounts REST API", description = "REST API to page through customers & accounts in customer id order. Pass the nextPageToken of a page as pageToken to fetch the next one")
+    @ApiResponses({@ApiResponse(responseCode = "200", description = "HTTP Status OK"), @ApiResponse(responseCode = "400", description = "HTTP Status Bad Request", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))), @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))})
+    @GetMapping()
+    public ResponseEntity<PageDto<CustomerDto>> getAccounts(@RequestParam(name = "pageToken", required = false) String pageToken, @RequestParam(name = "size", defaultValue = DEFAULT_PAGE_SIZE) @Min(value = 1, message = "Page size must be at least 1") @Max(value = MAX_PAGE_SIZE, message = "At most 1000 customers can be fetched per page") int size) {
+        PageDto<CustomerDto> page = accountService.getAccounts(pageToken, size);
+        return ResponseEntity.status(HttpStatus.OK).body(page);
     }
 
     @Operation(summary = "Fetch Account Details REST API", description = "REST API to fetch Customer &  Account details based on a mobile number")
-    @ApiResponses({@ApiResponse(responseCode = "200", description = "HTTP Status OK"), @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))})
+    @ApiResponses({@ApiResponse(responseCode = "200", description = "HTTP Status OK"), @ApiResponse(responseCode = "304", description = "HTTP Status Not Modified"), @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))})
     @GetMapping("/{mobileNumber}")
-    public ResponseEntity<CustomerDto> getAccount(@PathVariable("mobileNumber") @Pattern(regexp = "(^$|[0-9]{10,13})", message = "Mobile number must be 10 to 13 digits") String mobileNumber) {
+    public ResponseEntity<CustomerDto> getAccount(@PathVariable("mobileNumber") @Pattern(regexp = "(^$|[0-9]{10,13})", message = "Mobile number must be 10 to 13 digits") String mobileNumber, WebRequest webRequest) {
 
-        CustomerDto customerDto = accountService.getAccount(mobileNumber);
+        Versioned<CustomerDto> customer = accountService.getVersionedAccount(mobileNumber);
+        if (webRequest.checkNotModified(customer.eTag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
 
-        return ResponseEntity.status(HttpStatus.OK).body(customerDto);
+        return ResponseEntity.status(HttpStatus.OK).body(customer.body().get());
+    }
+
+    @Operation(summary = "Export Accounts REST API", description = "REST API to stream every Customer & Account as newline-delimited JSON, one customer per line")
+    @ApiResponses({@ApiResponse(responseCode = "200", description = "HTTP Status OK"), @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))})
+    @GetMapping(path = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE})
+    public void exportAccounts(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        accountService.exportAccounts(response.getOutputStream());
     }
 
     @Operation(summary = "Update Account Details REST API", description = "REST API to update Customer &  Account details based on a account number")
@@ -2,6 +2,7 @@ package com.charly.accounts.controller;
 
 import com.charly.accounts.dto.CustomerDetailDto;
 import com.charly.accounts.dto.ErrorResponseDto;
+import com.charly.accounts.etag.Versioned;
 import com.charly.accounts.service.CustomerService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -9,12 +10,19 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import org.apache.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+
+import static com.charly.accounts.constant.AccountConstant.MAX_BATCH_SIZE;
 
 @Tag(name = "REST API for Customers in EazyBank", description = "REST APIs in EazyBank to FETCH customer details")
 @RestController
@@ -29,13 +37,24 @@ public class CustomerController {
     }
 
     @Operation(summary = "Fetch Customer Details REST API", description = "REST API to fetch Customer details based on a mobile number")
-    @ApiResponses({@ApiResponse(responseCode = "200", description = "HTTP Status OK"), @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))})
+    @ApiResponses({@ApiResponse(responseCode = "200", description = "HTTP Status OK"), @ApiResponse(responseCode = "304", description = "HTTP Status Not Modified"), @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))})
     @GetMapping("/{mobileNumber}")
-    public ResponseEntity<CustomerDetailDto> getCustomerDetail(@PathVariable("mobileNumber") @Pattern(regexp = "(^$|[0-9]{10,13})", message = "Mobile number must be 10 to 13 digits") String mobileNumber) {
-        CustomerDetailDto customerDetailsDto = customersService.getCustomerDetail(mobileNumber);
-        return ResponseEntity.status(HttpStatus.SC_OK).body(customerDetailsDto);
+    public ResponseEntity<CustomerDetailDto> getCustomerDetail(@PathVariable("mobileNumber") @Pattern(regexp = "(^$|[0-9]{10,13})", message = "Mobile number must be 10 to 13 digits") String mobileNumber, WebRequest webRequest) {
+        Versioned<CustomerDetailDto> customerDetail = customersService.getVersionedCustomerDetail(mobileNumber);
+        if (webRequest.checkNotModified(customerDetail.eTag())) {
+            return ResponseEntity.status(HttpStatus.SC_NOT_MODIFIED).build();
+        }
+        return ResponseEntity.status(HttpStatus.SC_OK).body(customerDetail.body().get());
 
     }
 
+    @Operation(summary = "Fetch Customer Details in batch REST API", description = "REST API to fetch Customer details of many mobile numbers in one call")
+    @ApiResponses({@ApiResponse(responseCode = "200", description = "HTTP Status OK"), @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))})
+    @PostMapping("/batch")
+    public ResponseEntity<List<CustomerDetailDto>> getCustomerDetails(@RequestBody @NotEmpty(message = "Mobile numbers can not be empty") @Size(max = MAX_BATCH_SIZE, message = "At most 1000 mobile numbers can be fetched at once") List<@Pattern(regexp = "(^$|[0-9]{10,13})", message = "Mobile number must be 10 to 13 digits") String> mobileNumbers) {
+        List<CustomerDetailDto> customerDetailsDto = customersService.getCustomerDetails(mobileNumbers);
+        return ResponseEntity.status(HttpStatus.SC_OK).body(customerDetailsDto);
+    }
+
 
 }
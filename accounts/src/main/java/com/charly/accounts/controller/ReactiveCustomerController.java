@@ -0,0 +1,43 @@
+package com.charly.accounts.controller;
+
+import com.charly.accounts.dto.CustomerDetailDto;
+import com.charly.accounts.dto.ErrorResponseDto;
+import com.charly.accounts.service.ReactiveCustomerService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Pattern;
+import org.apache.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking variant of {@link CustomerController}. The servlet thread is released as soon as the {@link Mono}
+ * is returned and the response is written from the thread that completes it.
+ */
+@Tag(name = "Non-blocking REST API for Customers in EazyBank", description = "Non-blocking REST APIs in EazyBank to FETCH customer details")
+@RestController
+@RequestMapping(path = "/api/v2/customers", produces = {MediaType.APPLICATION_JSON_VALUE})
+@Validated
+public class ReactiveCustomerController {
+
+    private final ReactiveCustomerService customersService;
+
+    public ReactiveCustomerController(ReactiveCustomerService customersService) {
+        this.customersService = customersService;
+    }
+
+    @Operation(summary = "Fetch Customer Details non-blocking REST API", description = "REST API to fetch Customer details based on a mobile number without holding a thread while loans and cards respond")
+    @ApiResponses({@ApiResponse(responseCode = "200", description = "HTTP Status OK"), @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))})
+    @GetMapping("/{mobileNumber}")
+    public Mono<ResponseEntity<CustomerDetailDto>> getCustomerDetail(@PathVariable("mobileNumber") @Pattern(regexp = "(^$|[0-9]{10,13})", message = "Mobile number must be 10 to 13 digits") String mobileNumber) {
+        return customersService.getCustomerDetail(mobileNumber)
+                .map(customerDetailDto -> ResponseEntity.status(HttpStatus.SC_OK).body(customerDetailDto));
+    }
+}
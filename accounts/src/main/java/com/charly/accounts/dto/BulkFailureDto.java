@@ -0,0 +1,20 @@
+package com.charly.accounts.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@Schema(name = "BulkFailure", description = "Schema to hold a record of a bulk request that could not be processed")
+public class BulkFailureDto {
+
+    @Schema(description = "Position of the record in the request, starting at 0", example = "42")
+    private int index;
+
+    @Schema(description = "Mobile Number of the record", example = "9345432123")
+    private String mobileNumber;
+
+    @Schema(description = "Reason the record was not processed")
+    private String errorMessage;
+}
@@ -0,0 +1,22 @@
+package com.charly.accounts.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@Schema(name = "BulkResponse", description = "Schema to hold the outcome of a bulk request")
+public class BulkResponseDto {
+
+    @Schema(description = "Records received", example = "5000")
+    private int received;
+
+    @Schema(description = "Records created", example = "4998")
+    private int created;
+
+    @Schema(description = "Records that could not be created, in request order")
+    private List<BulkFailureDto> failures;
+}
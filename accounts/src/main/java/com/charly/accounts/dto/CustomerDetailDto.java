@@ -7,6 +7,8 @@ import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
 
+import java.time.Instant;
+
 @Data
 @Schema(name = "customerDetails", description = "Schema to hold Customer, Account, Cards and Loans information")
 public class CustomerDetailDto {
@@ -33,4 +35,16 @@ public class CustomerDetailDto {
 
     @Schema(description = "Cards details of the Customer")
     private CardDto cardDto;
+
+    @Schema(description = "Whether the loans details are AVAILABLE, STALE or MISSING", example = "AVAILABLE")
+    private SectionStatus loanStatus;
+
+    @Schema(description = "Whether the cards details are AVAILABLE, STALE or MISSING", example = "AVAILABLE")
+    private SectionStatus cardStatus;
+
+    @Schema(description = "Every change to loans made before this time is reflected in the loans details. Absent when they were fetched from the loans service", example = "2024-06-01T10:15:30.123456Z")
+    private Instant loanAsOf;
+
+    @Schema(description = "Every change to cards made before this time is reflected in the cards details. Absent when they were fetched from the cards service", example = "2024-06-01T10:15:30.123456Z")
+    private Instant cardAsOf;
 }
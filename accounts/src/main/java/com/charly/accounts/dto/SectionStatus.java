@@ -0,0 +1,21 @@
+package com.charly.accounts.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(name = "SectionStatus", description = "Tells whether a section of an aggregated response could be filled")
+public enum SectionStatus {
+    /**
+     * Section holds the current data returned by the owning service, or the local copy caught up within
+     * {@code read-model.maxLag}.
+     */
+    AVAILABLE,
+    /**
+     * Owning service missed its budget or the local copy lags behind, section holds the last known data.
+     */
+    STALE,
+    /**
+     * Owning service missed its budget or failed and no data is known, or the customer has nothing with it, section
+     * is null.
+     */
+    MISSING
+}
@@ -3,8 +3,12 @@ package com.charly.accounts.entity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import lombok.*;
+import org.springframework.data.domain.Persistable;
 
 @Entity
 @Getter
@@ -13,7 +17,7 @@ import lombok.*;
 @AllArgsConstructor
 @NoArgsConstructor
 @Table(name = "accounts")
-public class Account extends BaseEntity {
+public class Account extends BaseEntity implements Persistable<Long> {
 
     @Column(name = "customer_id")
     private Long customerId;
@@ -28,4 +32,27 @@ public class Account extends BaseEntity {
     @Column(name = "branch_address")
     private String branchAddress;
 
+    /**
+     * The account number is assigned before saving, so Spring Data can not tell a new account from
+     * an existing one by its id. Without this flag every insert would be preceded by a select.
+     */
+    @Transient
+    private boolean newEntity = true;
+
+    @Override
+    public Long getId() {
+        return accountNumber;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newEntity = false;
+    }
+
 }
@@ -0,0 +1,51 @@
+package com.charly.accounts.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Position of this service in a topic of the event broker. Saved in the transaction that applies the events before
+ * it, so a restart neither skips nor repeats them. The offset is only valid for the log it was read from.
+ */
+@Entity
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@Table(name = "event_offsets")
+public class EventOffset implements Persistable<String> {
+
+    @Id
+    private String topic;
+
+    @Column(name = "next_offset")
+    private long nextOffset;
+
+    @Column(name = "log_id")
+    private String logId;
+
+    @Transient
+    private boolean newEntity = true;
+
+    public EventOffset(String topic, long nextOffset) {
+        this.topic = topic;
+        this.nextOffset = nextOffset;
+    }
+
+    @Override
+    public String getId() {
+        return topic;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newEntity = false;
+    }
+}
@@ -0,0 +1,28 @@
+package com.charly.accounts.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Getter
+@Setter
+@ToString(callSuper = true)
+@NoArgsConstructor
+@Table(name = "loan_summaries")
+public class LoanSummary extends Summary {
+
+    @Column(name = "loan_number")
+    private String loanNumber;
+
+    @Column(name = "loan_type")
+    private String loanType;
+
+    @Column(name = "total_loan")
+    private int totalLoan;
+
+    @Column(name = "amount_paid")
+    private int amountPaid;
+
+    @Column(name = "outstanding_amount")
+    private int outstandingAmount;
+}
@@ -0,0 +1,51 @@
+package com.charly.accounts.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Row of a local read model kept from the change events of another service, keyed by mobile number like the aggregate
+ * it mirrors. Deleted aggregates stay as tombstones, so a late duplicate of an older event can not bring them back.
+ */
+@MappedSuperclass
+@Getter
+@Setter
+@ToString
+public abstract class Summary implements Persistable<String> {
+
+    @Id
+    @Column(name = "mobile_number")
+    private String mobileNumber;
+
+    private boolean deleted;
+
+    /**
+     * Id of the last event applied, 0 for rows of the initial load. Events of one aggregate carry increasing ids, so
+     * an event not above it is a redelivery.
+     */
+    @Column(name = "source_event_id")
+    private long sourceEventId;
+
+    /**
+     * The mobile number is the id, so Spring Data can not tell a new row from an existing one by it.
+     */
+    @Transient
+    private boolean newEntity = true;
+
+    @Override
+    public String getId() {
+        return mobileNumber;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newEntity = false;
+    }
+}
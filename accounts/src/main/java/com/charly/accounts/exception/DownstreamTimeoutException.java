@@ -0,0 +1,15 @@
+package com.charly.accounts.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.time.Duration;
+
+@ResponseStatus(value = HttpStatus.GATEWAY_TIMEOUT)
+public class DownstreamTimeoutException extends RuntimeException {
+
+    public DownstreamTimeoutException(String service, Duration timeout) {
+        super(String.format("%s service did not respond within %d ms", service, timeout.toMillis()));
+    }
+
+}
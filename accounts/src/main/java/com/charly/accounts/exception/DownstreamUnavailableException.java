@@ -0,0 +1,13 @@
+package com.charly.accounts.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE)
+public class DownstreamUnavailableException extends RuntimeException {
+
+    public DownstreamUnavailableException(String service) {
+        super(String.format("%s service call rejected, every downstream thread and queue slot is taken", service));
+    }
+
+}
@@ -0,0 +1,12 @@
+package com.charly.accounts.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class IdempotentRequestInProgressException extends RuntimeException {
+
+    public IdempotentRequestInProgressException(String idempotencyKey) {
+        super(String.format("Request with idempotency key '%s' is still in progress, retry later", idempotencyKey));
+    }
+}
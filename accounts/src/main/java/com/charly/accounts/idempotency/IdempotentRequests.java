@@ -0,0 +1,89 @@
+package com.charly.accounts.idempotency;
+
+import com.charly.accounts.exception.IdempotencyKeyReusedException;
+import com.charly.accounts.exception.IdempotentRequestInProgressException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Runs requests carrying an {@value #IDEMPOTENCY_KEY_HEADER} header at most once per key. A retry of a completed
+ * request gets the stored response replayed without reaching the service or the database, a retry of a request that
+ * is still running is rejected with 409 and reusing a key for different parameters with 422. A request that fails
+ * frees its key, so it can be retried. Parameters are told apart by the SHA-256 of their JSON with properties and map
+ * entries in sorted order, so the same parameters always give the same fingerprint.
+ */
+@Component
+public class IdempotentRequests {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final String FINGERPRINT_ALGORITHM = "SHA-256";
+
+    private final IdempotencyStore idempotencyStore;
+
+    private final ObjectMapper canonicalMapper;
+
+    public IdempotentRequests(IdempotencyStore idempotencyStore, ObjectMapper objectMapper) {
+        this.idempotencyStore = idempotencyStore;
+        this.canonicalMapper = objectMapper.copy().setConfig(objectMapper.getSerializationConfig()
+                .with(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+                .with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS));
+    }
+
+    /**
+     * @param operation      - name of the operation, keys are scoped per operation
+     * @param idempotencyKey - value of the {@value #IDEMPOTENCY_KEY_HEADER} header, null runs the request as is
+     * @param parameters     - parameters of the request, a retry has to repeat them
+     * @param request        - runs the request
+     * @return response of the request, or the stored response of its first run
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ResponseEntity<T> execute(String operation, String idempotencyKey, Object parameters, Supplier<ResponseEntity<T>> request) {
+        if (idempotencyKey == null) {
+            return request.get();
+        }
+        String key = operation + ":" + idempotencyKey;
+        String fingerprint = fingerprint(parameters);
+        IdempotencyRecord stored = idempotencyStore.putIfAbsent(key, IdempotencyRecord.inProgress(fingerprint));
+        if (stored != null) {
+            if (!stored.fingerprint().equals(fingerprint)) {
+                throw new IdempotencyKeyReusedException(idempotencyKey);
+            }
+            if (stored.isInProgress()) {
+                throw new IdempotentRequestInProgressException(idempotencyKey);
+            }
+            return ResponseEntity.status(stored.status()).header(REPLAYED_HEADER, "true").body((T) stored.body());
+        }
+        ResponseEntity<T> response;
+        try {
+            response = request.get();
+        } catch (RuntimeException ex) {
+            idempotencyStore.remove(key);
+            throw ex;
+        }
+        idempotencyStore.put(key, new IdempotencyRecord(fingerprint, response.getStatusCode().value(), response.getBody()));
+        return response;
+    }
+
+    private String fingerprint(Object parameters) {
+        try {
+            byte[] json = canonicalMapper.writeValueAsBytes(parameters);
+            return HexFormat.of().formatHex(MessageDigest.getInstance(FINGERPRINT_ALGORITHM).digest(json));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Could not serialize " + parameters.getClass().getSimpleName(), ex);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(FINGERPRINT_ALGORITHM + " is not available", ex);
+        }
+    }
+}
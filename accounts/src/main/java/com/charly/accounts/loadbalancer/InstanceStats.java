@@ -0,0 +1,105 @@
+package com.charly.accounts.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load of one replica as seen by this service: calls in flight and a peak-sensitive moving average of their latency.
+ * A slower call replaces the average right away, faster ones only pull it down gradually, and without calls it decays
+ * towards zero so an idle or recovered replica gets probed again. Outlier detection compares against the
+ * {@link #baseline(long)} instead, which decays towards the initial latency.
+ */
+class InstanceStats {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final double decayNanos;
+
+    private final double initialNanos;
+
+    private volatile double latencyNanos;
+
+    private volatile long sampledAt;
+
+    private volatile boolean sampled;
+
+    private volatile long ejectedUntil;
+
+    private int failures;
+
+    private int ejections;
+
+    InstanceStats(LoadBalancingProperties properties, long now) {
+        this.decayNanos = properties.getDecayTime().toNanos();
+        this.initialNanos = properties.getInitialLatency().toNanos();
+        this.latencyNanos = initialNanos;
+        this.sampledAt = now;
+        this.ejectedUntil = now;
+    }
+
+    void started() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * @param latencyNanos - time the call took
+     * @param failed       - whether the call failed or was answered with a server error
+     * @param now          - current {@link System#nanoTime()}
+     * @return failed calls in a row, including this one
+     */
+    synchronized int completed(long latencyNanos, boolean failed, long now) {
+        inFlight.decrementAndGet();
+        double weight = Math.exp(-(now - sampledAt) / decayNanos);
+        this.latencyNanos = latencyNanos > this.latencyNanos ? latencyNanos : this.latencyNanos * weight + latencyNanos * (1 - weight);
+        this.sampledAt = now;
+        this.sampled = true;
+        this.failures = failed ? failures + 1 : 0;
+        if (!failed && !isEjected(now)) {
+            this.ejections = 0;
+        }
+        return failures;
+    }
+
+    /**
+     * @return latency average decayed to now, without the in-flight calls
+     */
+    double latency(long now) {
+        return latencyNanos * Math.exp(-(now - sampledAt) / decayNanos);
+    }
+
+    /**
+     * @return latency average decayed to now towards the initial latency, what the replica is assumed to answer in
+     *         while the sample behind it gets old
+     */
+    double baseline(long now) {
+        double weight = Math.exp(-(now - sampledAt) / decayNanos);
+        return latencyNanos * weight + initialNanos * (1 - weight);
+    }
+
+    /**
+     * @return whether a call completed on the replica within the decay time
+     */
+    boolean hasRecentSample(long now) {
+        return sampled && now - sampledAt < decayNanos;
+    }
+
+    /**
+     * @return expected wait for one more call: the latency average scaled by the calls already queued on the replica
+     */
+    double cost(long now) {
+        return latency(now) * (inFlight.get() + 1);
+    }
+
+    /**
+     * @param ejectionNanos - time of a first ejection, multiplied by the ejections in a row without a good call between
+     * @param maxMultiplier - cap of that multiplier
+     */
+    synchronized void eject(long ejectionNanos, int maxMultiplier, long now) {
+        this.ejections = Math.min(ejections + 1, maxMultiplier);
+        this.ejectedUntil = now + ejectionNanos * ejections;
+        this.failures = 0;
+    }
+
+    boolean isEjected(long now) {
+        return now - ejectedUntil < 0;
+    }
+}
@@ -0,0 +1,72 @@
+package com.charly.accounts.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Picks two replicas at random and sends the call to the one with the lower {@link InstanceStats#cost(long)}. Unlike
+ * always taking the cheapest replica, the random pair keeps callers from herding onto the same one between two
+ * samples, while a replica that slows down, e.g. in a GC pause, loses most of its calls as soon as they queue up on it.
+ * Ejected replicas are skipped unless every replica is ejected.
+ */
+public class LatencyAwareLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+
+    private final LatencyTracker latencyTracker;
+
+    public LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider, LatencyTracker latencyTracker) {
+        this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+        this.latencyTracker = latencyTracker;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = serviceInstanceListSupplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(instances -> {
+            Response<ServiceInstance> response = choose(instances);
+            if (supplier instanceof SelectedInstanceCallback callback && response.hasServer()) {
+                callback.selectedServiceInstance(response.getServer());
+            }
+            return response;
+        });
+    }
+
+    private Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            return new EmptyResponse();
+        }
+        long now = latencyTracker.now();
+        List<InstanceStats> stats = instances.stream().map(latencyTracker::stats).toList();
+        latencyTracker.retain(instances);
+        int[] candidates = IntStream.range(0, instances.size()).filter(i -> !stats.get(i).isEjected(now)).toArray();
+        if (candidates.length == 0) {
+            candidates = IntStream.range(0, instances.size()).toArray();
+        }
+        if (candidates.length == 1) {
+            return new DefaultResponse(instances.get(candidates[0]));
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.length);
+        int second = random.nextInt(candidates.length - 1);
+        if (second >= first) {
+            second++;
+        }
+        int a = candidates[first];
+        int b = candidates[second];
+        return new DefaultResponse(instances.get(stats.get(a).cost(now) <= stats.get(b).cost(now) ? a : b));
+    }
+}
@@ -0,0 +1,187 @@
+package com.charly.accounts.loadbalancer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the {@link InstanceStats} of every replica this service calls, fed by the load balancer around each call
+ * Feign or the web client makes. Ejects a replica for a while once its calls keep failing or it becomes a latency
+ * outlier among the replicas of its service, but never more of them than {@code maxEjectedPercent} allows. A replica
+ * ejected again right after its return stays out longer each time. Only replicas with a call completed within the
+ * decay time serve as the latency baseline, an idle replica says nothing about what its service answers in now.
+ */
+@Component
+public class LatencyTracker implements LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> {
+
+    private static final Logger log = LoggerFactory.getLogger(LatencyTracker.class);
+
+    private static final String EJECTION_COUNTER = "loadbalancer.ejections";
+
+    private static final int MAX_EJECTION_MULTIPLIER = 10;
+
+    private final Map<String, Map<String, InstanceStats>> services = new ConcurrentHashMap<>();
+
+    private final LoadBalancingProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public LatencyTracker(LoadBalancingProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock - source of {@link System#nanoTime()} readings, replaced in tests
+     */
+    LatencyTracker(LoadBalancingProperties properties, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return RequestDataContext.class.isAssignableFrom(requestContextClass)
+                && ResponseData.class.isAssignableFrom(responseClass)
+                && ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<RequestDataContext> request) {
+        // nothing is known before a replica is chosen
+    }
+
+    @Override
+    public void onStartRequest(Request<RequestDataContext> request, Response<ServiceInstance> lbResponse) {
+        if (lbResponse.hasServer()) {
+            request.getContext().setRequestStartTime(now());
+            stats(lbResponse.getServer()).started();
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (completionContext.status() == CompletionContext.Status.DISCARD || lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        ResponseData response = completionContext.getClientResponse();
+        boolean failed = completionContext.status() == CompletionContext.Status.FAILED
+                || response != null && response.getHttpStatus() != null && response.getHttpStatus().is5xxServerError();
+        long now = now();
+        ServiceInstance server = lbResponse.getServer();
+        completed(server.getServiceId(), key(server), now - completionContext.getLoadBalancerRequest().getContext().getRequestStartTime(), failed, now);
+    }
+
+    /**
+     * Completes a call its client gave up on, e.g. when its budget elapsed. The load balancer does not hear of those,
+     * yet the replica was too slow for it, so the call counts as failed with the time waited so far.
+     *
+     * @param uri          - address the call was sent to
+     * @param latencyNanos - time waited for the call
+     */
+    public void abandoned(URI uri, long latencyNanos) {
+        String key = key(uri.getHost(), uri.getPort());
+        services.forEach((serviceId, replicas) -> {
+            if (replicas.containsKey(key)) {
+                completed(serviceId, key, latencyNanos, true, now());
+            }
+        });
+    }
+
+    private void completed(String serviceId, String key, long latencyNanos, boolean failed, long now) {
+        Map<String, InstanceStats> replicas = services.get(serviceId);
+        InstanceStats stats = replicas == null ? null : replicas.get(key);
+        if (stats == null) {
+            return;
+        }
+        int failures = stats.completed(latencyNanos, failed, now);
+        if (failures >= properties.getConsecutiveFailures()) {
+            eject(serviceId, key, replicas, stats, now, failures + " failed calls in a row");
+        } else if (isOutlier(replicas, stats, now)) {
+            eject(serviceId, key, replicas, stats, now, "latency of " + Math.round(stats.latency(now) / 1_000_000) + " ms");
+        }
+    }
+
+    private boolean isOutlier(Map<String, InstanceStats> replicas, InstanceStats stats, long now) {
+        double latency = stats.baseline(now);
+        if (latency < properties.getOutlierMinLatency().toNanos()) {
+            return false;
+        }
+        return replicas.values().stream()
+                .filter(other -> other != stats && !other.isEjected(now) && other.hasRecentSample(now))
+                .mapToDouble(other -> other.baseline(now))
+                .min()
+                .stream()
+                .anyMatch(fastest -> latency > fastest * properties.getOutlierFactor());
+    }
+
+    private void eject(String serviceId, String key, Map<String, InstanceStats> replicas, InstanceStats stats, long now, String reason) {
+        synchronized (replicas) {
+            long ejected = replicas.values().stream().filter(replica -> replica.isEjected(now)).count();
+            if (stats.isEjected(now) || (ejected + 1) * 100 > (long) properties.getMaxEjectedPercent() * replicas.size()) {
+                return;
+            }
+            stats.eject(properties.getEjectionTime().toNanos(), MAX_EJECTION_MULTIPLIER, now);
+        }
+        log.warn("Ejecting {} replica {}: {}", serviceId, key, reason);
+        meterRegistry.counter(EJECTION_COUNTER, "service", serviceId, "instance", key).increment();
+    }
+
+    /**
+     * @return the stats of the given replica, tracked from now on when it is new
+     */
+    InstanceStats stats(ServiceInstance instance) {
+        return services.computeIfAbsent(instance.getServiceId(), serviceId -> new ConcurrentHashMap<>())
+                .computeIfAbsent(key(instance), key -> new InstanceStats(properties, now()));
+    }
+
+    /**
+     * @return current reading of the clock the stats are kept with
+     */
+    long now() {
+        return nanoClock.getAsLong();
+    }
+
+    /**
+     * Forgets replicas of the service that left discovery, so they neither count as the fastest replica nor towards
+     * the ejection limit.
+     *
+     * @param instances - every replica of a service discovery currently lists
+     */
+    void retain(List<ServiceInstance> instances) {
+        Map<String, InstanceStats> replicas = services.get(instances.get(0).getServiceId());
+        if (replicas != null && replicas.size() > instances.size()) {
+            Set<String> listed = instances.stream().map(LatencyTracker::key).collect(Collectors.toSet());
+            replicas.keySet().retainAll(listed);
+        }
+    }
+
+    private static String key(ServiceInstance instance) {
+        return key(instance.getHost(), instance.getPort());
+    }
+
+    private static String key(String host, int port) {
+        return host + ":" + port;
+    }
+}
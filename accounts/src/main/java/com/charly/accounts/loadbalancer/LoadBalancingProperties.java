@@ -0,0 +1,54 @@
+package com.charly.accounts.loadbalancer;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "load-balancing")
+public class LoadBalancingProperties {
+
+    /**
+     * Pick replicas by observed latency and in-flight calls, otherwise Spring Cloud's round robin applies.
+     */
+    private boolean latencyAware = true;
+
+    /**
+     * Time after which the latency average has mostly forgotten a sample. Shorter reacts faster, longer is steadier.
+     */
+    private Duration decayTime = Duration.ofSeconds(10);
+
+    /**
+     * Latency assumed for a replica no call has completed on yet.
+     */
+    private Duration initialLatency = Duration.ofMillis(100);
+
+    /**
+     * Failed calls in a row, errors or 5xx responses, after which a replica is ejected.
+     */
+    private int consecutiveFailures = 5;
+
+    /**
+     * How many times slower than the fastest replica of its service a replica may get before it is ejected.
+     */
+    private double outlierFactor = 3.0;
+
+    /**
+     * Latency below which a replica is never ejected for being slow, however fast the others are.
+     */
+    private Duration outlierMinLatency = Duration.ofMillis(200);
+
+    /**
+     * Time an ejected replica receives no calls, unless every replica of the service is ejected. Grows with every
+     * ejection in a row, up to ten times as long.
+     */
+    private Duration ejectionTime = Duration.ofSeconds(30);
+
+    /**
+     * Share of the known replicas of a service that may be ejected at the same time, in percent.
+     */
+    private int maxEjectedPercent = 50;
+}
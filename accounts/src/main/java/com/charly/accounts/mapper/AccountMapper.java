@@ -2,6 +2,7 @@ package com.charly.accounts.mapper;
 
 import com.charly.accounts.dto.AccountDto;
 import com.charly.accounts.entity.Account;
+import com.charly.accounts.repository.projection.CustomerAccountView;
 
 public class AccountMapper {
     public static AccountDto mapToAccountsDto(Account accounts, AccountDto accountsDto) {
@@ -11,6 +12,13 @@ public class AccountMapper {
         return accountsDto;
     }
 
+    public static AccountDto mapToAccountsDto(CustomerAccountView customerAccount, AccountDto accountsDto) {
+        accountsDto.setAccountNumber(customerAccount.getAccountNumber());
+        accountsDto.setAccountType(customerAccount.getAccountType());
+        accountsDto.setBranchAddress(customerAccount.getBranchAddress());
+        return accountsDto;
+    }
+
     public static Account mapToAccounts(AccountDto accountsDto, Account accounts) {
         accounts.setAccountNumber(accountsDto.getAccountNumber());
         accounts.setAccountType(accountsDto.getAccountType());
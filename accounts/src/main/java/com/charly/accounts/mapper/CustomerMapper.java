@@ -1,8 +1,10 @@
 package com.charly.accounts.mapper;
 
+import com.charly.accounts.dto.AccountDto;
 import com.charly.accounts.dto.CustomerDetailDto;
 import com.charly.accounts.dto.CustomerDto;
 import com.charly.accounts.entity.Customer;
+import com.charly.accounts.repository.projection.CustomerAccountView;
 
 public class CustomerMapper {
 
@@ -16,6 +18,14 @@ public class CustomerMapper {
         return customerDto;
     }
 
+    public static CustomerDto mapToCustomerDto(CustomerAccountView customerAccount, CustomerDto customerDto) {
+        customerDto.setName(customerAccount.getName());
+        customerDto.setEmail(customerAccount.getEmail());
+        customerDto.setMobileNumber(customerAccount.getMobileNumber());
+        customerDto.setAccountDto(AccountMapper.mapToAccountsDto(customerAccount, new AccountDto()));
+        return customerDto;
+    }
+
     public static Customer mapToCustomer(CustomerDto customerDto, Customer customer) {
         customer.setName(customerDto.getName());
         customer.setEmail(customerDto.getEmail());
@@ -29,4 +39,12 @@ public class CustomerMapper {
         customerDetailDto.setMobileNumber(customer.getMobileNumber());
         return customerDetailDto;
     }
+
+    public static CustomerDetailDto mapToCustomerDetailDto(CustomerAccountView customerAccount, CustomerDetailDto customerDetailDto) {
+        customerDetailDto.setName(customerAccount.getName());
+        customerDetailDto.setEmail(customerAccount.getEmail());
+        customerDetailDto.setMobileNumber(customerAccount.getMobileNumber());
+        customerDetailDto.setAccountDto(AccountMapper.mapToAccountsDto(customerAccount, new AccountDto()));
+        return customerDetailDto;
+    }
 }
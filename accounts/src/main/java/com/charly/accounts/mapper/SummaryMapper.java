@@ -0,0 +1,57 @@
+package com.charly.accounts.mapper;
+
+import com.charly.accounts.dto.CardDto;
+import com.charly.accounts.dto.LoanDto;
+import com.charly.accounts.entity.CardSummary;
+import com.charly.accounts.entity.LoanSummary;
+
+public class SummaryMapper {
+
+    private SummaryMapper() {
+        // restrict instantiation
+    }
+
+    public static LoanDto mapToLoanDto(LoanSummary loanSummary, LoanDto loanDto) {
+        loanDto.setMobileNumber(loanSummary.getMobileNumber());
+        loanDto.setLoanNumber(loanSummary.getLoanNumber());
+        loanDto.setLoanType(loanSummary.getLoanType());
+        loanDto.setTotalLoan(loanSummary.getTotalLoan());
+        loanDto.setAmountPaid(loanSummary.getAmountPaid());
+        loanDto.setOutstandingAmount(loanSummary.getOutstandingAmount());
+        return loanDto;
+    }
+
+    /**
+     * Leaves the mobile number alone, it is the key of the summary.
+     */
+    public static LoanSummary mapToLoanSummary(LoanDto loanDto, LoanSummary loanSummary) {
+        loanSummary.setLoanNumber(loanDto.getLoanNumber());
+        loanSummary.setLoanType(loanDto.getLoanType());
+        loanSummary.setTotalLoan(loanDto.getTotalLoan());
+        loanSummary.setAmountPaid(loanDto.getAmountPaid());
+        loanSummary.setOutstandingAmount(loanDto.getOutstandingAmount());
+        return loanSummary;
+    }
+
+    public static CardDto mapToCardDto(CardSummary cardSummary, CardDto cardDto) {
+        cardDto.setMobileNumber(cardSummary.getMobileNumber());
+        cardDto.setCardNumber(cardSummary.getCardNumber());
+        cardDto.setCardType(cardSummary.getCardType());
+        cardDto.setTotalLimit(cardSummary.getTotalLimit());
+        cardDto.setAmountUsed(cardSummary.getAmountUsed());
+        cardDto.setAvailableAmount(cardSummary.getAvailableAmount());
+        return cardDto;
+    }
+
+    /**
+     * Leaves the mobile number alone, it is the key of the summary.
+     */
+    public static CardSummary mapToCardSummary(CardDto cardDto, CardSummary cardSummary) {
+        cardSummary.setCardNumber(cardDto.getCardNumber());
+        cardSummary.setCardType(cardDto.getCardType());
+        cardSummary.setTotalLimit(cardDto.getTotalLimit());
+        cardSummary.setAmountUsed(cardDto.getAmountUsed());
+        cardSummary.setAvailableAmount(cardDto.getAvailableAmount());
+        return cardSummary;
+    }
+}
@@ -0,0 +1,21 @@
+package com.charly.accounts.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.Instant;
+
+/**
+ * State-carrying change of one aggregate. The payload holds the complete state after the change, or the last state
+ * before a deletion, so consumers never have to call back for details. Heartbeats carry neither an aggregate nor a
+ * payload, only the time up to which the outbox was drained.
+ *
+ * @param eventId       - position in the outbox of the producing service, increases with every change of an aggregate
+ * @param aggregateType - kind of aggregate, also the topic the event is published to
+ * @param aggregateId   - key of the aggregate, the mobile number, null for heartbeats
+ * @param eventType     - kind of change
+ * @param occurredAt    - instant the change was made, by the clock of the producing service
+ * @param payload       - state of the aggregate as JSON, null for heartbeats
+ */
+public record ChangeEvent(long eventId, String aggregateType, String aggregateId, EventType eventType,
+                          Instant occurredAt, JsonNode payload) {
+}
@@ -0,0 +1,12 @@
+package com.charly.accounts.outbox;
+
+import java.util.List;
+
+/**
+ * @param events     - events read, oldest first
+ * @param nextOffset - offset to continue reading from
+ * @param logId      - identity of the log the offsets point into, changes when the log is recreated. Null while the
+ *                   topic has no log yet
+ */
+public record EventBatch(List<ChangeEvent> events, long nextOffset, String logId) {
+}
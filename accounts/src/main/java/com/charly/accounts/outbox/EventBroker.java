@@ -0,0 +1,27 @@
+package com.charly.accounts.outbox;
+
+import java.util.List;
+
+/**
+ * Append-only event log split into topics. Consumers keep their own offset per topic and read on from it.
+ * The {@link FileEventBroker} is used unless {@code outbox.broker} selects the {@link InMemoryEventBroker} or another
+ * implementation is defined as a bean, e.g. one on a message broker shared by all replicas.
+ */
+public interface EventBroker {
+
+    /**
+     * @param topic  - topic to append to
+     * @param events - events to append, in order
+     */
+    void publish(String topic, List<ChangeEvent> events);
+
+    /**
+     * @param topic     - topic to read
+     * @param offset    - offset returned by the previous poll, 0 for the beginning of the topic
+     * @param maxEvents - maximum number of events to return
+     * @return events following the offset, empty when there are none yet
+     * @throws OffsetOutOfRangeException when the offset points past the end of the log or into the middle of an
+     *                                   event, e.g. because the log was deleted or recreated since the offset was read
+     */
+    EventBatch poll(String topic, long offset, int maxEvents);
+}
@@ -0,0 +1,13 @@
+package com.charly.accounts.outbox;
+
+/**
+ * Kind of change a {@link ChangeEvent} records. Created and updated events carry the complete new state, so
+ * consumers treat both as an upsert. A heartbeat records no change: the relay publishes it once the outbox is drained,
+ * to confirm that every change made before it has been published.
+ */
+public enum EventType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    HEARTBEAT
+}
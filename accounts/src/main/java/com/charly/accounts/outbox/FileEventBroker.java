@@ -0,0 +1,173 @@
+package com.charly.accounts.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * {@link EventBroker} on local files for running several services on one machine: each topic is a file of
+ * newline-delimited JSON in a shared directory, and offsets are byte positions in that file. Appends hold a file lock,
+ * so services in other processes never interleave their lines. Readers skip a line until it is complete.
+ * <p>
+ * The first line of a file is a header with a random log id, written with the first events. Offsets are only valid
+ * for the file they were read from: a poll from past the end of the file or from the middle of a line fails with
+ * {@link OffsetOutOfRangeException}, and a consumer landing on a line of a recreated file notices the new log id.
+ */
+public class FileEventBroker implements EventBroker {
+
+    private static final String LOG_SUFFIX = ".ndjson";
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private static final int MAX_HEADER_SIZE = 256;
+
+    private static final String LOG_ID = "logId";
+
+    private final Path directory;
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectWriter writer;
+
+    private final ObjectReader reader;
+
+    public FileEventBroker(Path directory, ObjectMapper objectMapper) {
+        this.directory = directory;
+        this.objectMapper = objectMapper;
+        this.writer = objectMapper.writerFor(ChangeEvent.class);
+        this.reader = objectMapper.readerFor(ChangeEvent.class);
+    }
+
+    @Override
+    public synchronized void publish(String topic, List<ChangeEvent> events) {
+        try {
+            ByteArrayOutputStream lines = new ByteArrayOutputStream();
+            for (ChangeEvent event : events) {
+                lines.writeBytes(writer.writeValueAsBytes(event));
+                lines.write('\n');
+            }
+            Files.createDirectories(directory);
+            try (FileChannel channel = FileChannel.open(log(topic), CREATE, WRITE, APPEND);
+                 FileLock lock = channel.lock()) {
+                ByteBuffer buffer = ByteBuffer.wrap(channel.size() == 0 ? withHeader(lines) : lines.toByteArray());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not publish to topic " + topic, ex);
+        }
+    }
+
+    @Override
+    public EventBatch poll(String topic, long offset, int maxEvents) {
+        Path log = log(topic);
+        if (!Files.exists(log)) {
+            return empty(topic, offset);
+        }
+        List<ChangeEvent> events = new ArrayList<>();
+        long nextOffset;
+        String logId;
+        try (FileChannel channel = FileChannel.open(log, READ)) {
+            Header header = readHeader(channel);
+            if (header == null) {
+                return empty(topic, offset);
+            }
+            logId = header.logId();
+            long position = offset == 0 ? header.length() : offset;
+            if (position > channel.size() || !startsLine(channel, position)) {
+                throw new OffsetOutOfRangeException(topic, offset);
+            }
+            nextOffset = position;
+            channel.position(position);
+            ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            while (events.size() < maxEvents && channel.read(buffer) > 0) {
+                buffer.flip();
+                while (buffer.hasRemaining() && events.size() < maxEvents) {
+                    byte next = buffer.get();
+                    position++;
+                    if (next == '\n') {
+                        events.add(reader.readValue(line.toByteArray()));
+                        line.reset();
+                        nextOffset = position;
+                    } else {
+                        line.write(next);
+                    }
+                }
+                buffer.clear();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not poll topic " + topic, ex);
+        }
+        return new EventBatch(events, nextOffset, logId);
+    }
+
+    /**
+     * @return no events for a topic without a complete log yet, which no offset beyond 0 can point into
+     */
+    private static EventBatch empty(String topic, long offset) {
+        if (offset > 0) {
+            throw new OffsetOutOfRangeException(topic, offset);
+        }
+        return new EventBatch(List.of(), offset, null);
+    }
+
+    private byte[] withHeader(ByteArrayOutputStream lines) throws IOException {
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        log.writeBytes(objectMapper.writeValueAsBytes(Map.of(LOG_ID, UUID.randomUUID().toString())));
+        log.write('\n');
+        lines.writeTo(log);
+        return log.toByteArray();
+    }
+
+    /**
+     * @return header of the file, null while the first append is still being written
+     */
+    private Header readHeader(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(MAX_HEADER_SIZE);
+        channel.read(buffer, 0);
+        for (int i = 0; i < buffer.position(); i++) {
+            if (buffer.get(i) == '\n') {
+                String logId = objectMapper.readTree(buffer.array(), 0, i).path(LOG_ID).asText();
+                return new Header(logId, i + 1);
+            }
+        }
+        return null;
+    }
+
+    private static boolean startsLine(FileChannel channel, long position) throws IOException {
+        ByteBuffer previous = ByteBuffer.allocate(1);
+        return channel.read(previous, position - 1) == 1 && previous.get(0) == '\n';
+    }
+
+    private Path log(String topic) {
+        return directory.resolve(topic + LOG_SUFFIX);
+    }
+
+    /**
+     * @param logId  - random id written when the file was created
+     * @param length - bytes the header takes, the first event starts right after them
+     */
+    private record Header(String logId, long length) {
+    }
+}
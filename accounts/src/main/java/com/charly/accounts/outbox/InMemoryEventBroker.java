@@ -0,0 +1,68 @@
+package com.charly.accounts.outbox;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link EventBroker} in local memory for tests and benchmarks: only consumers in the same application context see
+ * the events. Offsets count events, and each topic keeps its most recent events up to the retention. The topics are
+ * gone with the context, so offsets kept from an earlier one are out of range.
+ */
+public class InMemoryEventBroker implements EventBroker {
+
+    private final Map<String, TopicLog> topics = new ConcurrentHashMap<>();
+
+    private final int retention;
+
+    public InMemoryEventBroker(int retention) {
+        this.retention = retention;
+    }
+
+    @Override
+    public void publish(String topic, List<ChangeEvent> events) {
+        topics.computeIfAbsent(topic, name -> new TopicLog()).append(events, retention);
+    }
+
+    @Override
+    public EventBatch poll(String topic, long offset, int maxEvents) {
+        TopicLog log = topics.get(topic);
+        if (log == null) {
+            if (offset > 0) {
+                throw new OffsetOutOfRangeException(topic, offset);
+            }
+            return new EventBatch(List.of(), offset, null);
+        }
+        return log.read(topic, offset, maxEvents);
+    }
+
+    private static final class TopicLog {
+
+        private final List<ChangeEvent> events = new ArrayList<>();
+
+        private final String logId = UUID.randomUUID().toString();
+
+        private long firstOffset;
+
+        synchronized void append(List<ChangeEvent> published, int retention) {
+            events.addAll(published);
+            int excess = events.size() - retention;
+            if (excess > 0) {
+                events.subList(0, excess).clear();
+                firstOffset += excess;
+            }
+        }
+
+        synchronized EventBatch read(String topic, long offset, int maxEvents) {
+            if (offset > firstOffset + events.size()) {
+                throw new OffsetOutOfRangeException(topic, offset);
+            }
+            // a consumer that fell behind the retention continues with the oldest event still kept
+            int from = (int) Math.min(Math.max(offset - firstOffset, 0), events.size());
+            int to = Math.min(from + maxEvents, events.size());
+            return new EventBatch(List.copyOf(events.subList(from, to)), firstOffset + to, logId);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.charly.accounts.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Records change events in the {@code outbox_events} table within the transaction of the change, so an event exists
+ * if and only if its change commits. {@link OutboxRelay} publishes them from there.
+ * <p>
+ * Callers flush their change before appending: the row lock it takes then orders the events of one aggregate the same
+ * way as its changes. The events go out through plain JDBC with an auto-increment key, which keeps batches of them
+ * batchable and the number generators out of the transaction. {@code occurred_at} holds UTC, so the times mean the same
+ * to every consumer whatever the zone of this service.
+ */
+@Component
+public class OutboxWriter {
+
+    private static final String INSERT_EVENT = "INSERT INTO outbox_events (aggregate_type, aggregate_id, event_type, payload, occurred_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    public OutboxWriter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param aggregateType - kind of aggregate, the topic
+     * @param aggregateId   - key of the aggregate
+     * @param eventType     - kind of change
+     * @param state         - state of the aggregate, serialized as the payload
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(String aggregateType, String aggregateId, EventType eventType, Object state) {
+        jdbcTemplate.update(INSERT_EVENT, aggregateType, aggregateId, eventType.name(), toJson(state), LocalDateTime.now(ZoneOffset.UTC));
+    }
+
+    /**
+     * Appends the events of a batch of changes with one JDBC batch.
+     *
+     * @param aggregateType - kind of aggregate, the topic
+     * @param eventType     - kind of change
+     * @param states        - states of the aggregates, serialized as the payloads
+     * @param aggregateId   - extracts the key of the aggregate from its state
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <T> void appendAll(String aggregateType, EventType eventType, List<T> states, Function<T, String> aggregateId) {
+        LocalDateTime occurredAt = LocalDateTime.now(ZoneOffset.UTC);
+        jdbcTemplate.batchUpdate(INSERT_EVENT, states, states.size(), (statement, state) -> {
+            statement.setString(1, aggregateType);
+            statement.setString(2, aggregateId.apply(state));
+            statement.setString(3, eventType.name());
+            statement.setString(4, toJson(state));
+            statement.setObject(5, occurredAt);
+        });
+    }
+
+    private String toJson(Object state) {
+        try {
+            return objectMapper.writeValueAsString(state);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Could not serialize " + state.getClass().getSimpleName(), ex);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.charly.accounts.readmodel;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "read-model")
+public class ReadModelProperties {
+
+    /**
+     * Serve customer details from the local loan and card summaries instead of calling loans and cards. Needs a broker
+     * shared with them, e.g. {@code outbox.broker: file} on the same machine.
+     */
+    private boolean enabled;
+
+    /**
+     * Pause between two runs catching up with the loans and cards topics.
+     */
+    private Duration syncInterval = Duration.ofMillis(500);
+
+    /**
+     * Events applied per transaction.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Age of the watermark beyond which sections are served as STALE.
+     */
+    private Duration maxLag = Duration.ofSeconds(30);
+
+    /**
+     * Page size of the initial load through the listing endpoints of loans and cards.
+     */
+    private int snapshotPageSize = 500;
+}
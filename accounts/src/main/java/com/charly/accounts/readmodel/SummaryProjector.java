@@ -0,0 +1,243 @@
+package com.charly.accounts.readmodel;
+
+import com.charly.accounts.dto.CardDto;
+import com.charly.accounts.dto.LoanDto;
+import com.charly.accounts.dto.PageDto;
+import com.charly.accounts.entity.CardSummary;
+import com.charly.accounts.entity.EventOffset;
+import com.charly.accounts.entity.LoanSummary;
+import com.charly.accounts.entity.Summary;
+import com.charly.accounts.mapper.SummaryMapper;
+import com.charly.accounts.outbox.ChangeEvent;
+import com.charly.accounts.outbox.EventBatch;
+import com.charly.accounts.outbox.EventBroker;
+import com.charly.accounts.outbox.EventType;
+import com.charly.accounts.outbox.OffsetOutOfRangeException;
+import com.charly.accounts.repository.CardSummaryRepository;
+import com.charly.accounts.repository.EventOffsetRepository;
+import com.charly.accounts.repository.LoanSummaryRepository;
+import com.charly.accounts.repository.SummaryRepository;
+import com.charly.accounts.service.client.CardFeignClient;
+import com.charly.accounts.service.client.LoanFeignClient;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static com.charly.accounts.constant.AccountConstant.CARD_EVENTS;
+import static com.charly.accounts.constant.AccountConstant.LOAN_EVENTS;
+
+/**
+ * Keeps the {@link SummaryReadModel} up to date from the change events loans and cards publish. Every few hundred
+ * milliseconds it reads each topic from its saved offset to the end, applying the events of a batch and the new offset
+ * in one transaction. Events are delivered at least once, redeliveries are recognized by their id. The watermark of a
+ * topic only advances to the times of the events and heartbeats read from it, so a projector cut off from the topic
+ * serves its copies as STALE.
+ * <p>
+ * The topics only hold changes made since loans and cards got their outbox, so the first run pages through their
+ * listing endpoints once and then replays the topics from the start. The same happens when the saved offset no longer
+ * points into the log of a topic, e.g. after the log was deleted. Such a reload marks the summaries no page returned
+ * deleted, since the events deleting them may be lost with the old log. Replicas sharing the database each run their own
+ * projector; the work is redundant but idempotent.
+ */
+@Component
+@ConditionalOnProperty(name = "read-model.enabled", havingValue = "true")
+public class SummaryProjector implements InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(SummaryProjector.class);
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("read-model-"));
+
+    private final List<Projection<?, ?>> projections;
+
+    private final EventBroker eventBroker;
+
+    private final EventOffsetRepository eventOffsetRepository;
+
+    private final SummaryReadModel summaryReadModel;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final ReadModelProperties properties;
+
+    public SummaryProjector(LoanSummaryRepository loanSummaryRepository, CardSummaryRepository cardSummaryRepository,
+                            LoanFeignClient loanFeignClient, CardFeignClient cardFeignClient, EventBroker eventBroker,
+                            EventOffsetRepository eventOffsetRepository, SummaryReadModel summaryReadModel,
+                            TransactionTemplate transactionTemplate, ObjectMapper objectMapper, ReadModelProperties properties) {
+        this.projections = List.of(
+                new Projection<>(LOAN_EVENTS, loanSummaryRepository, LoanSummary::new, LoanDto.class, LoanDto::getMobileNumber,
+                        SummaryMapper::mapToLoanSummary, loanFeignClient::getLoanPage),
+                new Projection<>(CARD_EVENTS, cardSummaryRepository, CardSummary::new, CardDto.class, CardDto::getMobileNumber,
+                        SummaryMapper::mapToCardSummary, cardFeignClient::getCardPage));
+        this.eventBroker = eventBroker;
+        this.eventOffsetRepository = eventOffsetRepository;
+        this.summaryReadModel = summaryReadModel;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        scheduler.scheduleWithFixedDelay(this::sync, 0, properties.getSyncInterval().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Catches up with every topic once.
+     */
+    void sync() {
+        for (Projection<?, ?> projection : projections) {
+            try {
+                catchUp(projection);
+            } catch (RuntimeException ex) {
+                // the scheduler drops a task that throws, the next run continues from the saved offset
+                log.warn("Catching up with topic {} failed, retrying in {}: {}", projection.topic(), properties.getSyncInterval(), ex.getMessage());
+            }
+        }
+    }
+
+    private <S extends Summary, D> void catchUp(Projection<S, D> projection) {
+        EventOffset offset = eventOffsetRepository.findById(projection.topic()).orElseGet(() -> loadSnapshot(projection));
+        EventBatch batch;
+        try {
+            do {
+                batch = eventBroker.poll(projection.topic(), offset.getNextOffset(), properties.getBatchSize());
+                if (offset.getLogId() != null && batch.logId() != null && !offset.getLogId().equals(batch.logId())) {
+                    throw new OffsetOutOfRangeException(projection.topic(), offset.getNextOffset());
+                }
+                if (!batch.events().isEmpty()) {
+                    offset = apply(projection, batch, offset);
+                    summaryReadModel.advanceWatermark(projection.topic(), batch.events().stream()
+                            .map(ChangeEvent::occurredAt).max(Comparator.naturalOrder()).orElseThrow());
+                }
+            } while (batch.events().size() == properties.getBatchSize());
+        } catch (OffsetOutOfRangeException ex) {
+            // the events missed since can only be recovered from the owning service, the next run loads them again
+            log.warn("{}, loading the {} summaries again", ex.getMessage(), projection.topic());
+            eventOffsetRepository.deleteById(projection.topic());
+        }
+    }
+
+    private <S extends Summary, D> EventOffset apply(Projection<S, D> projection, EventBatch batch, EventOffset offset) {
+        List<ChangeEvent> changes = batch.events().stream().filter(event -> event.eventType() != EventType.HEARTBEAT).toList();
+        return transactionTemplate.execute(status -> {
+            Map<String, S> summaries = findSummaries(projection, changes.stream().map(ChangeEvent::aggregateId).toList());
+            for (ChangeEvent event : changes) {
+                S summary = summaries.computeIfAbsent(event.aggregateId(), mobileNumber -> newSummary(projection, mobileNumber));
+                if (event.eventId() <= summary.getSourceEventId()) {
+                    continue;
+                }
+                projection.mapper().apply(toDto(projection, event), summary);
+                summary.setDeleted(event.eventType() == EventType.DELETED);
+                summary.setSourceEventId(event.eventId());
+            }
+            projection.repository().saveAll(summaries.values());
+            offset.setNextOffset(batch.nextOffset());
+            offset.setLogId(batch.logId());
+            return eventOffsetRepository.save(offset);
+        });
+    }
+
+    private <S extends Summary, D> EventOffset loadSnapshot(Projection<S, D> projection) {
+        log.info("Loading the initial {} summaries", projection.topic());
+        Set<String> listed = new HashSet<>();
+        String pageToken = null;
+        do {
+            PageDto<D> page = projection.page().apply(pageToken, properties.getSnapshotPageSize()).getBody();
+            if (page == null) {
+                throw new IllegalStateException("Empty page listing " + projection.topic());
+            }
+            List<String> mobileNumbers = page.getItems().stream().map(projection.key()).toList();
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<String, S> summaries = findSummaries(projection, mobileNumbers);
+                for (D dto : page.getItems()) {
+                    S summary = summaries.computeIfAbsent(projection.key().apply(dto), mobileNumber -> newSummary(projection, mobileNumber));
+                    projection.mapper().apply(dto, summary);
+                    summary.setDeleted(false);
+                }
+                projection.repository().saveAll(summaries.values());
+            });
+            listed.addAll(mobileNumbers);
+            pageToken = page.getNextPageToken();
+        } while (pageToken != null);
+        sweep(projection, listed);
+        return eventOffsetRepository.save(new EventOffset(projection.topic(), 0));
+    }
+
+    private <S extends Summary, D> void sweep(Projection<S, D> projection, Set<String> listed) {
+        List<String> unlisted = projection.repository().findMobileNumbersByDeletedFalse().stream()
+                .filter(mobileNumber -> !listed.contains(mobileNumber))
+                .toList();
+        for (int from = 0; from < unlisted.size(); from += properties.getSnapshotPageSize()) {
+            List<String> chunk = unlisted.subList(from, Math.min(from + properties.getSnapshotPageSize(), unlisted.size()));
+            transactionTemplate.executeWithoutResult(status -> projection.repository().markDeleted(chunk));
+        }
+        if (!unlisted.isEmpty()) {
+            log.info("Marked {} {} summaries deleted that the listing no longer returns", unlisted.size(), projection.topic());
+        }
+    }
+
+    private static <S extends Summary, D> Map<String, S> findSummaries(Projection<S, D> projection, Collection<String> mobileNumbers) {
+        return projection.repository().findAllById(mobileNumbers).stream()
+                .collect(Collectors.toMap(Summary::getMobileNumber, Function.identity()));
+    }
+
+    private static <S extends Summary, D> S newSummary(Projection<S, D> projection, String mobileNumber) {
+        S summary = projection.newSummary().get();
+        summary.setMobileNumber(mobileNumber);
+        return summary;
+    }
+
+    private <S extends Summary, D> D toDto(Projection<S, D> projection, ChangeEvent event) {
+        try {
+            return objectMapper.treeToValue(event.payload(), projection.dtoType());
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unreadable payload of " + projection.topic() + " event " + event.eventId(), ex);
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(properties.getSyncInterval().toMillis() + 5_000, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * How the events of one topic map onto its summaries.
+     *
+     * @param topic      - topic the owning service publishes to
+     * @param repository - repository of the summaries
+     * @param newSummary - creates an empty summary
+     * @param dtoType    - type the event payloads are read as
+     * @param key        - extracts the mobile number from a payload
+     * @param mapper     - copies a payload onto a summary
+     * @param page       - reads a page of the listing endpoint of the owning service, for the initial load
+     */
+    private record Projection<S extends Summary, D>(String topic, SummaryRepository<S> repository, Supplier<S> newSummary,
+                                                     Class<D> dtoType, Function<D, String> key, BiFunction<D, S, S> mapper,
+                                                     BiFunction<String, Integer, ResponseEntity<PageDto<D>>> page) {
+    }
+}
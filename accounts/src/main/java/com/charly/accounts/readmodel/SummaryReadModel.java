@@ -0,0 +1,116 @@
+package com.charly.accounts.readmodel;
+
+import com.charly.accounts.aggregation.SectionResult;
+import com.charly.accounts.dto.CardDto;
+import com.charly.accounts.dto.LoanDto;
+import com.charly.accounts.mapper.SummaryMapper;
+import com.charly.accounts.repository.CardSummaryRepository;
+import com.charly.accounts.repository.LoanSummaryRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Local copies of the loans and cards of every customer, kept by {@link SummaryProjector} from their change events.
+ * The watermark of a topic is the latest instant the owning service stamped on an event or heartbeat this instance has
+ * read from it: every change published before it is reflected. Instants compare the same in every zone, so only the
+ * clock skew between the hosts, normally far below the allowed lag, shifts when a section turns STALE. It is unknown until the first of them is read after
+ * startup, and it stops advancing when the topic cannot be read, e.g. when its log is not shared with this instance.
+ */
+@Component
+public class SummaryReadModel {
+
+    private final Map<String, Instant> watermarks = new ConcurrentHashMap<>();
+
+    private final LoanSummaryRepository loanSummaryRepository;
+
+    private final CardSummaryRepository cardSummaryRepository;
+
+    private final ReadModelProperties properties;
+
+    public SummaryReadModel(LoanSummaryRepository loanSummaryRepository, CardSummaryRepository cardSummaryRepository,
+                            ReadModelProperties properties) {
+        this.loanSummaryRepository = loanSummaryRepository;
+        this.cardSummaryRepository = cardSummaryRepository;
+        this.properties = properties;
+    }
+
+    /**
+     * @param mobileNumber - Input mobile Number
+     * @return Loan details or null when the customer has none
+     */
+    public LoanDto findLoan(String mobileNumber) {
+        return loanSummaryRepository.findByMobileNumberAndDeletedFalse(mobileNumber)
+                .map(loanSummary -> SummaryMapper.mapToLoanDto(loanSummary, new LoanDto()))
+                .orElse(null);
+    }
+
+    /**
+     * @param mobileNumbers - Input mobile Numbers
+     * @return Loan details by mobile number, customers without a loan are left out
+     */
+    public Map<String, LoanDto> findLoans(Collection<String> mobileNumbers) {
+        return loanSummaryRepository.findByMobileNumberInAndDeletedFalse(mobileNumbers).stream()
+                .map(loanSummary -> SummaryMapper.mapToLoanDto(loanSummary, new LoanDto()))
+                .collect(Collectors.toMap(LoanDto::getMobileNumber, loanDto -> loanDto));
+    }
+
+    /**
+     * @param mobileNumber - Input mobile Number
+     * @return Card details or null when the customer has none
+     */
+    public CardDto findCard(String mobileNumber) {
+        return cardSummaryRepository.findByMobileNumberAndDeletedFalse(mobileNumber)
+                .map(cardSummary -> SummaryMapper.mapToCardDto(cardSummary, new CardDto()))
+                .orElse(null);
+    }
+
+    /**
+     * @param mobileNumbers - Input mobile Numbers
+     * @return Card details by mobile number, customers without a card are left out
+     */
+    public Map<String, CardDto> findCards(Collection<String> mobileNumbers) {
+        return cardSummaryRepository.findByMobileNumberInAndDeletedFalse(mobileNumbers).stream()
+                .map(cardSummary -> SummaryMapper.mapToCardDto(cardSummary, new CardDto()))
+                .collect(Collectors.toMap(CardDto::getMobileNumber, cardDto -> cardDto));
+    }
+
+    /**
+     * @param topic - topic of the owning service
+     * @return time up to which this instance reflects the topic, null before its first event or heartbeat
+     */
+    public Instant watermark(String topic) {
+        return watermarks.get(topic);
+    }
+
+    /**
+     * @param topic      - topic of the owning service
+     * @param caughtUpAt - time of an event or heartbeat read from the topic, every change published before it has
+     *                   been applied
+     */
+    void advanceWatermark(String topic, Instant caughtUpAt) {
+        watermarks.merge(topic, caughtUpAt, (current, next) -> next.isAfter(current) ? next : current);
+    }
+
+    /**
+     * A section is {@link com.charly.accounts.dto.SectionStatus#STALE} while the watermark of its topic is unknown or
+     * older than the allowed lag, and {@link com.charly.accounts.dto.SectionStatus#MISSING} when the customer has
+     * nothing with the owning service.
+     *
+     * @param topic - topic of the owning service
+     * @param value - local copy, may be null
+     * @return the local copy together with its status
+     */
+    public <T> SectionResult<T> section(String topic, T value) {
+        if (value == null) {
+            return SectionResult.missing();
+        }
+        Instant watermark = watermarks.get(topic);
+        boolean current = watermark != null && watermark.isAfter(Instant.now().minus(properties.getMaxLag()));
+        return current ? SectionResult.available(value) : SectionResult.stale(value);
+    }
+}
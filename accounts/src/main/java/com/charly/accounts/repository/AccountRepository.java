@@ -1,14 +1,33 @@
 package com.charly.accounts.repository;
 
 import com.charly.accounts.entity.Account;
+import com.charly.accounts.repository.projection.CustomerAccountView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
+
+    String EXPORT_FETCH_SIZE = "500";
+
     Optional<Account> findByCustomerId(Long customerId);
 
     void deleteByCustomerId(Long customerId);
+
+    /**
+     * Every account joined with its customer, read through a forward-only cursor {@value #EXPORT_FETCH_SIZE} rows at
+     * a time. Has to be consumed inside a transaction and closed afterwards.
+     */
+    @Query("select new com.charly.accounts.repository.projection.CustomerAccountView(c.customerId, c.name, c.email, c.mobileNumber, a.accountNumber, a.accountType, a.branchAddress, "
+            + "coalesce(c.updatedAt, c.createdAt), coalesce(a.updatedAt, a.createdAt)) "
+            + "from Account a join Customer c on c.customerId = a.customerId order by a.accountNumber")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    Stream<CustomerAccountView> streamAllCustomerAccounts();
 }
@@ -0,0 +1,16 @@
+package com.charly.accounts.repository;
+
+import com.charly.accounts.entity.CardSummary;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CardSummaryRepository extends SummaryRepository<CardSummary> {
+
+    Optional<CardSummary> findByMobileNumberAndDeletedFalse(String mobileNumber);
+
+    List<CardSummary> findByMobileNumberInAndDeletedFalse(Collection<String> mobileNumbers);
+}
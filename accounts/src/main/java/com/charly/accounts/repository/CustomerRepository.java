@@ -1,12 +1,39 @@
 package com.charly.accounts.repository;
 
 import com.charly.accounts.entity.Customer;
+import com.charly.accounts.repository.projection.CustomerAccountView;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
+
+    String CUSTOMER_ACCOUNT_VIEW = "select new com.charly.accounts.repository.projection.CustomerAccountView(c.customerId, c.name, c.email, c.mobileNumber, a.accountNumber, a.accountType, a.branchAddress, "
+            + "coalesce(c.updatedAt, c.createdAt), coalesce(a.updatedAt, a.createdAt)) "
+            + "from Customer c left join Account a on a.customerId = c.customerId ";
+
     Optional<Customer> findByMobileNumber(String mobileNumber);
+
+    @Query(CUSTOMER_ACCOUNT_VIEW + "where c.mobileNumber = :mobileNumber")
+    Optional<CustomerAccountView> findCustomerAccountByMobileNumber(@Param("mobileNumber") String mobileNumber);
+
+    @Query(CUSTOMER_ACCOUNT_VIEW + "where c.mobileNumber in :mobileNumbers")
+    List<CustomerAccountView> findCustomerAccountsByMobileNumberIn(@Param("mobileNumbers") Collection<String> mobileNumbers);
+
+    /**
+     * Keyset page of customers with their accounts: seeks to the first customer id after the given one through the
+     * primary key, so deep pages cost the same as the first.
+     */
+    @Query(CUSTOMER_ACCOUNT_VIEW + "where c.customerId > :customerId order by c.customerId")
+    List<CustomerAccountView> findCustomerAccountsByCustomerIdGreaterThan(@Param("customerId") Long customerId, Limit limit);
+
+    @Query("select c.mobileNumber from Customer c where c.mobileNumber in :mobileNumbers")
+    List<String> findMobileNumbersByMobileNumberIn(@Param("mobileNumbers") Collection<String> mobileNumbers);
 }
@@ -0,0 +1,9 @@
+package com.charly.accounts.repository;
+
+import com.charly.accounts.entity.EventOffset;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EventOffsetRepository extends JpaRepository<EventOffset, String> {
+}
@@ -0,0 +1,16 @@
+package com.charly.accounts.repository;
+
+import com.charly.accounts.entity.LoanSummary;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LoanSummaryRepository extends SummaryRepository<LoanSummary> {
+
+    Optional<LoanSummary> findByMobileNumberAndDeletedFalse(String mobileNumber);
+
+    List<LoanSummary> findByMobileNumberInAndDeletedFalse(Collection<String> mobileNumbers);
+}
@@ -0,0 +1,31 @@
+package com.charly.accounts.repository;
+
+import com.charly.accounts.entity.Summary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Queries every read model table supports, written against whichever summary entity the repository is declared for.
+ */
+@NoRepositoryBean
+public interface SummaryRepository<S extends Summary> extends JpaRepository<S, String> {
+
+    @Query("select s.mobileNumber from #{#entityName} s where s.deleted = false")
+    List<String> findMobileNumbersByDeletedFalse();
+
+    /**
+     * Turns the given summaries into tombstones. Bypasses the persistence context, so summaries already loaded into it
+     * keep their old state.
+     *
+     * @return number of summaries marked deleted
+     */
+    @Modifying
+    @Query("update #{#entityName} s set s.deleted = true where s.mobileNumber in :mobileNumbers")
+    int markDeleted(@Param("mobileNumbers") Collection<String> mobileNumbers);
+}
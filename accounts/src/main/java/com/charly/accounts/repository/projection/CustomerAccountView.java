@@ -0,0 +1,37 @@
+package com.charly.accounts.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only row of a customer joined with its account. Built directly from the query result,
+ * so no entity is loaded into the persistence context.
+ */
+@Getter
+@AllArgsConstructor
+public class CustomerAccountView {
+
+    private final Long customerId;
+
+    private final String name;
+
+    private final String email;
+
+    private final String mobileNumber;
+
+    private final Long accountNumber;
+
+    private final String accountType;
+
+    private final String branchAddress;
+
+    private final LocalDateTime customerModifiedAt;
+
+    private final LocalDateTime accountModifiedAt;
+
+    public boolean hasAccount() {
+        return accountNumber != null;
+    }
+}
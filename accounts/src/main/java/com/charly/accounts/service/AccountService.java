@@ -1,13 +1,28 @@
 package com.charly.accounts.service;
 
+import com.charly.accounts.dto.BulkResponseDto;
 import com.charly.accounts.dto.CustomerDto;
+import com.charly.accounts.dto.PageDto;
+import com.charly.accounts.etag.Versioned;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
 
 public interface AccountService {
 
     void createAccount(CustomerDto customerDto);
 
+    BulkResponseDto createAccounts(List<CustomerDto> customerDtos);
+
     CustomerDto getAccount(String mobileNumber);
 
+    Versioned<CustomerDto> getVersionedAccount(String mobileNumber);
+
+    PageDto<CustomerDto> getAccounts(String pageToken, int pageSize);
+
+    void exportAccounts(OutputStream outputStream) throws IOException;
+
     boolean updateAccount(CustomerDto customerDto);
 
     boolean deleteAccount(String mobileNumber);
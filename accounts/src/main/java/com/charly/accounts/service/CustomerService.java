@@ -1,8 +1,15 @@
 package com.charly.accounts.service;
 
 import com.charly.accounts.dto.CustomerDetailDto;
+import com.charly.accounts.etag.Versioned;
+
+import java.util.List;
 
 public interface CustomerService {
 
     CustomerDetailDto getCustomerDetail(String mobileNumber);
+
+    Versioned<CustomerDetailDto> getVersionedCustomerDetail(String mobileNumber);
+
+    List<CustomerDetailDto> getCustomerDetails(List<String> mobileNumbers);
 }
@@ -0,0 +1,9 @@
+package com.charly.accounts.service;
+
+import com.charly.accounts.dto.CustomerDetailDto;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveCustomerService {
+
+    Mono<CustomerDetailDto> getCustomerDetail(String mobileNumber);
+}
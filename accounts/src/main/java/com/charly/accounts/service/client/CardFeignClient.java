@@ -1,15 +1,31 @@
 package com.charly.accounts.service.client;
 
 import com.charly.accounts.dto.CardDto;
+import com.charly.accounts.dto.PageDto;
+import feign.Request;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.List;
+
+/**
+ * Lookups by mobile number take their timeouts as a {@link Request.Options} argument in place of the configured ones.
+ */
 @FeignClient("cards")
 public interface CardFeignClient {
 
     @GetMapping(value = "/api/cards/{mobileNumber}", consumes = MediaType.APPLICATION_JSON_VALUE)
-    ResponseEntity<CardDto> getCard(@PathVariable("mobileNumber") String mobileNumber);
+    ResponseEntity<CardDto> getCard(@PathVariable("mobileNumber") String mobileNumber, Request.Options options);
+
+    @PostMapping(value = "/api/cards/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<List<CardDto>> getCards(@RequestBody List<String> mobileNumbers, Request.Options options);
+
+    @GetMapping(value = "/api/cards", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<PageDto<CardDto>> getCardPage(@RequestParam(name = "pageToken", required = false) String pageToken, @RequestParam(name = "size") int size);
 }
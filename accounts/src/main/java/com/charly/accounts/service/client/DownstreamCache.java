@@ -0,0 +1,184 @@
+package com.charly.accounts.service.client;
+
+import com.charly.accounts.aggregation.AggregationProperties;
+import com.charly.accounts.aggregation.FanOutExecutor;
+import com.charly.accounts.dto.CardDto;
+import com.charly.accounts.dto.LoanDto;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import feign.Request;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static com.charly.accounts.constant.AccountConstant.CARDS_BATCH;
+import static com.charly.accounts.constant.AccountConstant.CARDS_SERVICE;
+import static com.charly.accounts.constant.AccountConstant.LOANS_BATCH;
+import static com.charly.accounts.constant.AccountConstant.LOANS_SERVICE;
+import static com.charly.accounts.constant.AccountConstant.MAX_BATCH_SIZE;
+
+/**
+ * Read-through cache in front of {@link LoanFeignClient} and {@link CardFeignClient}.
+ * Entries older than the refresh interval are served as is while a reload runs in the background, on a small pool
+ * of its own so reloads neither take threads from nor get rejected alongside the downstream calls of requests. A
+ * reload that finds that pool full is dropped and counted as {@code downstream.cache.refreshes.dropped}.
+ * Bulk lookups coalesce every miss into batch calls of at most {@code MAX_BATCH_SIZE} mobile numbers.
+ * A blocked Feign call ignores interrupts, so every call reads with the budget of its service as timeout and gives
+ * its thread back once {@link FanOutExecutor} has given up on it.
+ */
+@Component
+public class DownstreamCache implements DisposableBean {
+
+    private static final String REFRESHES_DROPPED = "downstream.cache.refreshes.dropped";
+
+    private final ThreadPoolExecutor refreshExecutor;
+
+    private final LoadingCache<String, LoanDto> loans;
+
+    private final LoadingCache<String, CardDto> cards;
+
+    public DownstreamCache(LoanFeignClient loanFeignClient, CardFeignClient cardFeignClient, DownstreamCacheProperties properties,
+                           AggregationProperties aggregationProperties, MeterRegistry meterRegistry) {
+        this.refreshExecutor = refreshExecutor(properties, meterRegistry.counter(REFRESHES_DROPPED));
+        Request.Options loanOptions = options(aggregationProperties, LOANS_SERVICE);
+        Request.Options loansOptions = options(aggregationProperties, LOANS_BATCH);
+        Request.Options cardOptions = options(aggregationProperties, CARDS_SERVICE);
+        Request.Options cardsOptions = options(aggregationProperties, CARDS_BATCH);
+        this.loans = newCache(properties, refreshExecutor).build(new BatchLoader<>(
+                mobileNumber -> loanFeignClient.getLoan(mobileNumber, loanOptions).getBody(),
+                mobileNumbers -> loanFeignClient.getLoans(mobileNumbers, loansOptions), LoanDto::getMobileNumber));
+        this.cards = newCache(properties, refreshExecutor).build(new BatchLoader<>(
+                mobileNumber -> cardFeignClient.getCard(mobileNumber, cardOptions).getBody(),
+                mobileNumbers -> cardFeignClient.getCards(mobileNumbers, cardsOptions), CardDto::getMobileNumber));
+        CaffeineCacheMetrics.monitor(meterRegistry, loans, LOANS_SERVICE);
+        CaffeineCacheMetrics.monitor(meterRegistry, cards, CARDS_SERVICE);
+    }
+
+    private static Request.Options options(AggregationProperties properties, String service) {
+        return new Request.Options(properties.getConnectTimeout().toMillis(), TimeUnit.MILLISECONDS,
+                properties.budgetFor(service).toMillis(), TimeUnit.MILLISECONDS, true);
+    }
+
+    /**
+     * Caffeine gives up on a pending reload once its entry expires, so a dropped one does not block later reloads.
+     */
+    private static ThreadPoolExecutor refreshExecutor(DownstreamCacheProperties properties, Counter dropped) {
+        return new ThreadPoolExecutor(properties.getRefreshThreads(), properties.getRefreshThreads(), 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.getRefreshQueueCapacity()), new CustomizableThreadFactory("cache-refresh-"),
+                (task, executor) -> dropped.increment());
+    }
+
+    private static Caffeine<Object, Object> newCache(DownstreamCacheProperties properties, ThreadPoolExecutor refreshExecutor) {
+        return Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .refreshAfterWrite(properties.getRefreshAfterWrite())
+                .executor(refreshExecutor)
+                .recordStats();
+    }
+
+    /**
+     * @param mobileNumber - Input mobile Number
+     * @return Loan details, loaded from the loans service on a miss
+     */
+    public LoanDto getLoan(String mobileNumber) {
+        return loans.get(mobileNumber);
+    }
+
+    /**
+     * @param mobileNumbers - Input mobile Numbers
+     * @return Loan details by mobile number, misses are loaded with batch calls to the loans service
+     */
+    public Map<String, LoanDto> getLoans(Collection<String> mobileNumbers) {
+        return loans.getAll(mobileNumbers);
+    }
+
+    /**
+     * @param mobileNumber - Input mobile Number
+     * @return Card details, loaded from the cards service on a miss
+     */
+    public CardDto getCard(String mobileNumber) {
+        return cards.get(mobileNumber);
+    }
+
+    /**
+     * @param mobileNumbers - Input mobile Numbers
+     * @return Card details by mobile number, misses are loaded with batch calls to the cards service
+     */
+    public Map<String, CardDto> getCards(Collection<String> mobileNumbers) {
+        return cards.getAll(mobileNumbers);
+    }
+
+    /**
+     * @param mobileNumber - Input mobile Number
+     * @return last known Loan details or null, never calls the loans service
+     */
+    public LoanDto peekLoan(String mobileNumber) {
+        return loans.getIfPresent(mobileNumber);
+    }
+
+    /**
+     * @param mobileNumber - Input mobile Number
+     * @return last known Card details or null, never calls the cards service
+     */
+    public CardDto peekCard(String mobileNumber) {
+        return cards.getIfPresent(mobileNumber);
+    }
+
+    /**
+     * @param loanDto - Loan details fetched outside of this cache
+     */
+    public void putLoan(LoanDto loanDto) {
+        loans.put(loanDto.getMobileNumber(), loanDto);
+    }
+
+    /**
+     * @param cardDto - Card details fetched outside of this cache
+     */
+    public void putCard(CardDto cardDto) {
+        cards.put(cardDto.getMobileNumber(), cardDto);
+    }
+
+    @Override
+    public void destroy() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private record BatchLoader<T>(Function<String, T> single, Function<List<String>, ResponseEntity<List<T>>> batch,
+                                  Function<T, String> key) implements CacheLoader<String, T> {
+
+        @Override
+        public T load(String mobileNumber) {
+            return single.apply(mobileNumber);
+        }
+
+        @Override
+        public Map<String, T> loadAll(Set<? extends String> mobileNumbers) {
+            Map<String, T> loaded = new HashMap<>();
+            List<String> pending = new ArrayList<>(mobileNumbers);
+            for (int from = 0; from < pending.size(); from += MAX_BATCH_SIZE) {
+                List<T> body = batch.apply(pending.subList(from, Math.min(from + MAX_BATCH_SIZE, pending.size()))).getBody();
+                if (body != null) {
+                    body.forEach(value -> loaded.put(key.apply(value), value));
+                }
+            }
+            return loaded;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.charly.accounts.service.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "downstream-cache")
+public class DownstreamCacheProperties {
+
+    /**
+     * Entries kept per downstream before the least valuable ones are evicted.
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * Age after which an entry is no longer served at all.
+     */
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+
+    /**
+     * Age after which an entry is still served but reloaded in the background.
+     */
+    private Duration refreshAfterWrite = Duration.ofMinutes(1);
+
+    /**
+     * Threads reloading entries in the background, apart from the pool serving the downstream calls of requests.
+     */
+    private int refreshThreads = 2;
+
+    /**
+     * Reloads queued once every refresh thread is busy. Further ones are dropped, the entry is then served until it
+     * expires.
+     */
+    private int refreshQueueCapacity = 1_000;
+}
@@ -0,0 +1,90 @@
+package com.charly.accounts.service.client;
+
+import com.charly.accounts.aggregation.AggregationProperties;
+import com.charly.accounts.dto.CardDto;
+import com.charly.accounts.dto.LoanDto;
+import com.charly.accounts.loadbalancer.LatencyTracker;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import static com.charly.accounts.constant.AccountConstant.CARDS_SERVICE;
+import static com.charly.accounts.constant.AccountConstant.LOANS_SERVICE;
+
+/**
+ * Non-blocking counterpart of {@link LoanFeignClient} and {@link CardFeignClient}, running on the Netty event loop.
+ * Connections per service are capped at {@link AggregationProperties#getMaxPoolSize()} and at most
+ * {@link AggregationProperties#getQueueCapacity()} calls wait for one; calls beyond that fail right away.
+ * Calls cancelled once their budget elapses are reported to the {@link LatencyTracker}, the load balancer only hears
+ * of calls that complete.
+ */
+@Component
+public class DownstreamWebClient implements DisposableBean {
+
+    private final ConnectionProvider connections;
+
+    private final WebClient webClient;
+
+    public DownstreamWebClient(WebClient.Builder webClientBuilder, ReactorLoadBalancerExchangeFilterFunction loadBalancer,
+                               LatencyTracker latencyTracker, AggregationProperties properties) {
+        this.connections = ConnectionProvider.builder("downstream")
+                .maxConnections(properties.getMaxPoolSize())
+                .pendingAcquireMaxCount(properties.getQueueCapacity())
+                .build();
+        HttpClient httpClient = HttpClient.create(connections)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis());
+        this.webClient = webClientBuilder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(loadBalancer)
+                .filter(reportAbandoned(latencyTracker))
+                .build();
+    }
+
+    /**
+     * Runs after the load balancer has resolved the replica, so the request already carries its address.
+     */
+    private static ExchangeFilterFunction reportAbandoned(LatencyTracker latencyTracker) {
+        return (request, next) -> Mono.defer(() -> {
+            long startedAt = System.nanoTime();
+            return next.exchange(request)
+                    .doOnCancel(() -> latencyTracker.abandoned(request.url(), System.nanoTime() - startedAt));
+        });
+    }
+
+    /**
+     * @param mobileNumber - Input mobile Number
+     * @return Loan details, empty when the loans service has none
+     */
+    public Mono<LoanDto> getLoan(String mobileNumber) {
+        return webClient.get()
+                .uri("http://{service}/api/loans/{mobileNumber}", LOANS_SERVICE, mobileNumber)
+                .retrieve()
+                .bodyToMono(LoanDto.class)
+                .onErrorResume(WebClientResponseException.NotFound.class, ex -> Mono.empty());
+    }
+
+    /**
+     * @param mobileNumber - Input mobile Number
+     * @return Card details, empty when the cards service has none
+     */
+    public Mono<CardDto> getCard(String mobileNumber) {
+        return webClient.get()
+                .uri("http://{service}/api/cards/{mobileNumber}", CARDS_SERVICE, mobileNumber)
+                .retrieve()
+                .bodyToMono(CardDto.class)
+                .onErrorResume(WebClientResponseException.NotFound.class, ex -> Mono.empty());
+    }
+
+    @Override
+    public void destroy() {
+        connections.dispose();
+    }
+}
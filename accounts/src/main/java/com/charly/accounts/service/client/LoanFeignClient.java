@@ -1,15 +1,30 @@
 package com.charly.accounts.service.client;
 
 import com.charly.accounts.dto.LoanDto;
+import com.charly.accounts.dto.PageDto;
+import feign.Request;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.List;
+
+/**
+ * Lookups by mobile number take their timeouts as a {@link Request.Options} argument in place of the configured ones.
+ */
 @FeignClient("loans")
 public interface LoanFeignClient {
 
     @GetMapping("/api/loans/{mobileNumber}")
-    ResponseEntity<LoanDto> getLoan(@PathVariable("mobileNumber") String mobileNumber);
+    ResponseEntity<LoanDto> getLoan(@PathVariable("mobileNumber") String mobileNumber, Request.Options options);
+
+    @PostMapping("/api/loans/batch")
+    ResponseEntity<List<LoanDto>> getLoans(@RequestBody List<String> mobileNumbers, Request.Options options);
 
+    @GetMapping("/api/loans")
+    ResponseEntity<PageDto<LoanDto>> getLoanPage(@RequestParam(name = "pageToken", required = false) String pageToken, @RequestParam(name = "size") int size);
 }
@@ -1,59 +1,268 @@
 package com.charly.accounts.service.impl;
 
 import com.charly.accounts.dto.AccountDto;
+import com.charly.accounts.dto.BulkFailureDto;
+import com.charly.accounts.dto.BulkResponseDto;
 import com.charly.accounts.dto.CustomerDto;
+import com.charly.accounts.dto.PageDto;
 import com.charly.accounts.entity.Account;
 import com.charly.accounts.entity.Customer;
+import com.charly.accounts.etag.Versioned;
 import com.charly.accounts.exception.CustomerAlreadyExistsException;
 import com.charly.accounts.exception.ResourceNotFoundException;
+import com.charly.accounts.generator.NumberGenerator;
 import com.charly.accounts.mapper.AccountMapper;
 import com.charly.accounts.mapper.CustomerMapper;
+import com.charly.accounts.mapper.PageMapper;
+import com.charly.accounts.outbox.EventType;
+import com.charly.accounts.outbox.OutboxWriter;
 import com.charly.accounts.repository.AccountRepository;
 import com.charly.accounts.repository.CustomerRepository;
+import com.charly.accounts.repository.projection.CustomerAccountView;
 import com.charly.accounts.service.AccountService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.AllArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
-import java.util.Optional;
-import java.util.Random;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import static com.charly.accounts.constant.AccountConstant.ACCOUNT_EVENTS;
 import static com.charly.accounts.constant.AccountConstant.ADDRESS;
+import static com.charly.accounts.constant.AccountConstant.BULK_CHUNK_SIZE;
+import static com.charly.accounts.constant.AccountConstant.MAX_BATCH_SIZE;
+import static com.charly.accounts.constant.AccountConstant.MESSAGE_BULK_RECORD_FAILED;
 import static com.charly.accounts.constant.AccountConstant.SAVINGS;
 
 @Service
 @AllArgsConstructor
 public class AccountServiceImpl implements AccountService {
 
+    private static final Logger log = LoggerFactory.getLogger(AccountServiceImpl.class);
+
     private AccountRepository accountRepository;
 
     private CustomerRepository customerRepository;
 
+    private NumberGenerator accountNumberGenerator;
+
+    private NumberGenerator customerIdGenerator;
+
+    private TransactionTemplate transactionTemplate;
+
+    private ObjectMapper objectMapper;
+
+    private Validator validator;
+
+    private OutboxWriter outboxWriter;
+
     @Override
     public void createAccount(CustomerDto customerDto) {
-        Customer customer = CustomerMapper.mapToCustomer(customerDto, new Customer());
-        Optional<Customer> optionalCustomer = customerRepository.findByMobileNumber(customerDto.getMobileNumber());
-        if (optionalCustomer.isPresent()) {
-            throw new CustomerAlreadyExistsException("Customer already registered with given mobileNumber " + customerDto.getMobileNumber());
+        // taken before the transaction opens, see NumberGenerator
+        long customerId = customerIdGenerator.next();
+        long accountNumber = accountNumberGenerator.next();
+        transactionTemplate.executeWithoutResult(status -> createCustomerAndAccount(customerDto, customerId, accountNumber));
+    }
+
+    /**
+     * Validates every record on its own, then inserts the valid ones in chunks of {@code BULK_CHUNK_SIZE}, one
+     * transaction and one series of JDBC batches per chunk. A chunk rejected by the database, e.g. because a
+     * concurrent request registered one of its mobile numbers, is retried record by record to find the culprits.
+     */
+    @Override
+    public BulkResponseDto createAccounts(List<CustomerDto> customerDtos) {
+        List<BulkFailureDto> failures = new ArrayList<>();
+        List<BulkRecord> valid = new ArrayList<>(customerDtos.size());
+        Set<String> mobileNumbers = new HashSet<>();
+        for (int index = 0; index < customerDtos.size(); index++) {
+            CustomerDto customerDto = customerDtos.get(index);
+            String violations = violations(customerDto);
+            if (violations != null) {
+                failures.add(new BulkFailureDto(index, customerDto.getMobileNumber(), violations));
+            } else if (!mobileNumbers.add(customerDto.getMobileNumber())) {
+                failures.add(new BulkFailureDto(index, customerDto.getMobileNumber(), "Mobile number appears more than once in the request"));
+            } else {
+                valid.add(new BulkRecord(index, customerDto));
+            }
+        }
+
+        Set<String> registered = registeredMobileNumbers(valid);
+        List<BulkRecord> pending = new ArrayList<>(valid.size());
+        for (BulkRecord record : valid) {
+            if (registered.contains(record.customerDto().getMobileNumber())) {
+                failures.add(record.failure("Customer already registered with given mobileNumber " + record.customerDto().getMobileNumber()));
+            } else {
+                pending.add(record);
+            }
+        }
+
+        int created = 0;
+        for (int from = 0; from < pending.size(); from += BULK_CHUNK_SIZE) {
+            List<BulkRecord> chunk = pending.subList(from, Math.min(from + BULK_CHUNK_SIZE, pending.size()));
+            created += createChunk(chunk, failures);
         }
+        failures.sort(Comparator.comparingInt(BulkFailureDto::getIndex));
+        return new BulkResponseDto(customerDtos.size(), created, failures);
+    }
+
+    private String violations(CustomerDto customerDto) {
+        Set<ConstraintViolation<CustomerDto>> violations = validator.validate(customerDto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining(", "));
+    }
+
+    private Set<String> registeredMobileNumbers(List<BulkRecord> records) {
+        Set<String> registered = new HashSet<>();
+        for (int from = 0; from < records.size(); from += MAX_BATCH_SIZE) {
+            List<String> mobileNumbers = records.subList(from, Math.min(from + MAX_BATCH_SIZE, records.size())).stream()
+                    .map(record -> record.customerDto().getMobileNumber())
+                    .toList();
+            registered.addAll(customerRepository.findMobileNumbersByMobileNumberIn(mobileNumbers));
+        }
+        return registered;
+    }
+
+    private int createChunk(List<BulkRecord> chunk, List<BulkFailureDto> failures) {
+        // taken before the transaction opens, see NumberGenerator; a rolled back chunk reuses them record by record
+        long[] customerIds = new long[chunk.size()];
+        long[] accountNumbers = new long[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            customerIds[i] = customerIdGenerator.next();
+            accountNumbers[i] = accountNumberGenerator.next();
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Customer> customers = new ArrayList<>(chunk.size());
+                List<Account> accounts = new ArrayList<>(chunk.size());
+                List<CustomerDto> created = new ArrayList<>(chunk.size());
+                for (int i = 0; i < chunk.size(); i++) {
+                    Customer customer = newCustomer(chunk.get(i).customerDto(), customerIds[i]);
+                    Account account = newAccount(customer, accountNumbers[i]);
+                    customers.add(customer);
+                    accounts.add(account);
+                    created.add(mapToCustomerDto(customer, account));
+                }
+                customerRepository.saveAll(customers);
+                accountRepository.saveAllAndFlush(accounts);
+                outboxWriter.appendAll(ACCOUNT_EVENTS, EventType.CREATED, created, CustomerDto::getMobileNumber);
+            });
+            return chunk.size();
+        } catch (DataIntegrityViolationException ex) {
+            int created = 0;
+            for (int i = 0; i < chunk.size(); i++) {
+                BulkRecord record = chunk.get(i);
+                long customerId = customerIds[i];
+                long accountNumber = accountNumbers[i];
+                try {
+                    transactionTemplate.executeWithoutResult(status -> createCustomerAndAccount(record.customerDto(), customerId, accountNumber));
+                    created++;
+                } catch (CustomerAlreadyExistsException recordEx) {
+                    failures.add(record.failure(recordEx.getMessage()));
+                } catch (RuntimeException recordEx) {
+                    // the message may carry SQL and constraint names, it stays in the log
+                    log.warn("Bulk record {} could not be created", record.index(), recordEx);
+                    failures.add(record.failure(MESSAGE_BULK_RECORD_FAILED));
+                }
+            }
+            return created;
+        }
+    }
+
+    private void createCustomerAndAccount(CustomerDto customerDto, long customerId, long accountNumber) {
+        Customer customer = newCustomer(customerDto, customerId);
+        // the unique index on mobile_number detects duplicates, including concurrent creates, in the insert itself
+        Customer savedCustomer;
+        try {
+            savedCustomer = customerRepository.saveAndFlush(customer);
+        } catch (DataIntegrityViolationException ex) {
+            if (isDuplicateMobileNumber(ex)) {
+                throw new CustomerAlreadyExistsException("Customer already registered with given mobileNumber " + customerDto.getMobileNumber());
+            }
+            throw ex;
+        }
+
+        Account savedAccount = accountRepository.save(newAccount(savedCustomer, accountNumber));
+        outboxWriter.append(ACCOUNT_EVENTS, savedCustomer.getMobileNumber(), EventType.CREATED, mapToCustomerDto(savedCustomer, savedAccount));
+    }
+
+    private static CustomerDto mapToCustomerDto(Customer customer, Account account) {
+        CustomerDto customerDto = CustomerMapper.mapToCustomerDto(customer, new CustomerDto());
+        customerDto.setAccountDto(AccountMapper.mapToAccountsDto(account, new AccountDto()));
+        return customerDto;
+    }
+
+    private static Customer newCustomer(CustomerDto customerDto, long customerId) {
+        Customer customer = CustomerMapper.mapToCustomer(customerDto, new Customer());
+        customer.setCustomerId(customerId);
         customer.setCreatedAt(LocalDateTime.now());
         customer.setCreatedBy("Anonymous");
-        Customer savedCustomer = customerRepository.save(customer);
+        return customer;
+    }
 
-        createNewAccount(savedCustomer);
+    private static boolean isDuplicateMobileNumber(DataIntegrityViolationException ex) {
+        String message = ex.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains("ux_customers_mobile_number");
     }
 
     @Override
     public CustomerDto getAccount(String mobileNumber) {
-        Customer customer = customerRepository.findByMobileNumber(mobileNumber).orElseThrow(() -> new ResourceNotFoundException("Customer", "mobileNumber", mobileNumber));
-        Account account = accountRepository.findByCustomerId(customer.getCustomerId()).orElseThrow(() -> new ResourceNotFoundException("Account", "customerId", customer.getCustomerId().toString()));
-        CustomerDto customerDto = CustomerMapper.mapToCustomerDto(customer, new CustomerDto());
-        customerDto.setAccountDto(AccountMapper.mapToAccountsDto(account, new AccountDto()));
-        return customerDto;
+        return getVersionedAccount(mobileNumber).body().get();
     }
 
     @Override
+    public Versioned<CustomerDto> getVersionedAccount(String mobileNumber) {
+        CustomerAccountView customerAccount = customerRepository.findCustomerAccountByMobileNumber(mobileNumber).orElseThrow(() -> new ResourceNotFoundException("Customer", "mobileNumber", mobileNumber));
+        if (!customerAccount.hasAccount()) {
+            throw new ResourceNotFoundException("Account", "customerId", customerAccount.getCustomerId().toString());
+        }
+        return new Versioned<>(Versioned.weakETag(customerAccount.getCustomerId(), customerAccount.getCustomerModifiedAt(), customerAccount.getAccountModifiedAt()),
+                () -> CustomerMapper.mapToCustomerDto(customerAccount, new CustomerDto()));
+    }
+
+    @Override
+    public PageDto<CustomerDto> getAccounts(String pageToken, int pageSize) {
+        List<CustomerAccountView> customerAccounts = customerRepository.findCustomerAccountsByCustomerIdGreaterThan(
+                PageMapper.mapToLastKey(pageToken), Limit.of(pageSize + 1));
+        return PageMapper.mapToPageDto(customerAccounts, pageSize, CustomerAccountView::getCustomerId,
+                customerAccount -> CustomerMapper.mapToCustomerDto(customerAccount, new CustomerDto()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAccounts(OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(CustomerDto.class);
+        // rows are projections, not entities, so nothing piles up in the persistence context
+        try (Stream<CustomerAccountView> customerAccounts = accountRepository.streamAllCustomerAccounts()) {
+            for (Iterator<CustomerAccountView> iterator = customerAccounts.iterator(); iterator.hasNext(); ) {
+                outputStream.write(writer.writeValueAsBytes(CustomerMapper.mapToCustomerDto(iterator.next(), new CustomerDto())));
+                outputStream.write('\n');
+            }
+        }
+    }
+
+    @Override
+    @Transactional
     public boolean updateAccount(CustomerDto customerDto) {
         boolean isUpdated = false;
         AccountDto accountDto = customerDto.getAccountDto();
@@ -64,8 +273,15 @@ public class AccountServiceImpl implements AccountService {
 
             Long customerId = accounts.getCustomerId();
             Customer customer = customerRepository.findById(customerId).orElseThrow(() -> new ResourceNotFoundException("Customer", "CustomerID", customerId.toString()));
+            String previousMobileNumber = customer.getMobileNumber();
             CustomerMapper.mapToCustomer(customerDto, customer);
-            customerRepository.save(customer);
+            customerRepository.saveAndFlush(customer);
+            CustomerDto updated = mapToCustomerDto(customer, accounts);
+            if (!previousMobileNumber.equals(updated.getMobileNumber())) {
+                // consumers key customers by mobile number, the customer moves to another key
+                outboxWriter.append(ACCOUNT_EVENTS, previousMobileNumber, EventType.DELETED, updated);
+            }
+            outboxWriter.append(ACCOUNT_EVENTS, updated.getMobileNumber(), EventType.UPDATED, updated);
             isUpdated = true;
         }
         return isUpdated;
@@ -75,23 +291,30 @@ public class AccountServiceImpl implements AccountService {
     @Transactional
     public boolean deleteAccount(String mobileNumber) {
         Customer customer = customerRepository.findByMobileNumber(mobileNumber).orElseThrow(() -> new ResourceNotFoundException("Customer", "mobileNumber", mobileNumber));
+        CustomerDto deleted = CustomerMapper.mapToCustomerDto(customer, new CustomerDto());
         accountRepository.deleteByCustomerId(customer.getCustomerId());
         customerRepository.deleteById(customer.getCustomerId());
+        customerRepository.flush();
+        outboxWriter.append(ACCOUNT_EVENTS, mobileNumber, EventType.DELETED, deleted);
         return true;
     }
 
-    private void createNewAccount(Customer customer) {
+    private static Account newAccount(Customer customer, long accountNumber) {
         Account newAccount = new Account();
         newAccount.setCustomerId(customer.getCustomerId());
-        long randomAccNumber = 1000000000L + new Random().nextInt(900000000);
-
-        newAccount.setAccountNumber(randomAccNumber);
+        newAccount.setAccountNumber(accountNumber);
         newAccount.setAccountType(SAVINGS);
         newAccount.setBranchAddress(ADDRESS);
         newAccount.setCreatedAt(LocalDateTime.now());
         newAccount.setCreatedBy("Anonymous");
+        return newAccount;
+    }
+
+    private record BulkRecord(int index, CustomerDto customerDto) {
 
-        accountRepository.save(newAccount);
+        BulkFailureDto failure(String errorMessage) {
+            return new BulkFailureDto(index, customerDto.getMobileNumber(), errorMessage);
+        }
     }
 
 }
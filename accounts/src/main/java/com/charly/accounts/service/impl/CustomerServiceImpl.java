@@ -1,50 +1,191 @@
 package com.charly.accounts.service.impl;
 
-import com.charly.accounts.dto.AccountDto;
+import com.charly.accounts.aggregation.FanOutExecutor;
+import com.charly.accounts.aggregation.SectionResult;
 import com.charly.accounts.dto.CardDto;
 import com.charly.accounts.dto.CustomerDetailDto;
 import com.charly.accounts.dto.LoanDto;
-import com.charly.accounts.entity.Account;
-import com.charly.accounts.entity.Customer;
+import com.charly.accounts.dto.SectionStatus;
+import com.charly.accounts.etag.Versioned;
 import com.charly.accounts.exception.ResourceNotFoundException;
-import com.charly.accounts.mapper.AccountMapper;
 import com.charly.accounts.mapper.CustomerMapper;
-import com.charly.accounts.repository.AccountRepository;
+import com.charly.accounts.readmodel.ReadModelProperties;
+import com.charly.accounts.readmodel.SummaryReadModel;
 import com.charly.accounts.repository.CustomerRepository;
+import com.charly.accounts.repository.projection.CustomerAccountView;
 import com.charly.accounts.service.CustomerService;
-import com.charly.accounts.service.client.CardFeignClient;
-import com.charly.accounts.service.client.LoanFeignClient;
+import com.charly.accounts.service.client.DownstreamCache;
 import lombok.AllArgsConstructor;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.charly.accounts.constant.AccountConstant.CARDS_BATCH;
+import static com.charly.accounts.constant.AccountConstant.CARD_EVENTS;
+import static com.charly.accounts.constant.AccountConstant.CARDS_SERVICE;
+import static com.charly.accounts.constant.AccountConstant.LOANS_BATCH;
+import static com.charly.accounts.constant.AccountConstant.LOANS_SERVICE;
+import static com.charly.accounts.constant.AccountConstant.LOAN_EVENTS;
+
 @Service
 @AllArgsConstructor
 public class CustomerServiceImpl implements CustomerService {
 
-    private AccountRepository accountRepository;
     private CustomerRepository customerRepository;
-    private CardFeignClient cardFeignClient;
-    private LoanFeignClient loanFeignClient;
+    private DownstreamCache downstreamCache;
+    private FanOutExecutor fanOutExecutor;
+    private SummaryReadModel summaryReadModel;
+    private ReadModelProperties readModelProperties;
 
     @Override
     public CustomerDetailDto getCustomerDetail(String mobileNumber) {
-        Customer customer = customerRepository.findByMobileNumber(mobileNumber).orElseThrow(
+        return getVersionedCustomerDetail(mobileNumber).body().get();
+    }
+
+    @Override
+    public Versioned<CustomerDetailDto> getVersionedCustomerDetail(String mobileNumber) {
+        if (readModelProperties.isEnabled()) {
+            // loans and cards are off the request path, their sections come from the local summaries
+            CustomerAccountView customerAccount = findCustomerAccount(mobileNumber);
+            return versioned(customerAccount,
+                    summaryReadModel.section(LOAN_EVENTS, summaryReadModel.findLoan(mobileNumber)), summaryReadModel.watermark(LOAN_EVENTS),
+                    summaryReadModel.section(CARD_EVENTS, summaryReadModel.findCard(mobileNumber)), summaryReadModel.watermark(CARD_EVENTS));
+        }
+        // loans and cards are keyed by mobile number only, so both calls can start before the local lookups
+        CompletableFuture<LoanDto> loanFuture = fanOutExecutor.submitIfAbsent(LOANS_SERVICE,
+                () -> downstreamCache.peekLoan(mobileNumber), () -> downstreamCache.getLoan(mobileNumber));
+        CompletableFuture<CardDto> cardFuture = fanOutExecutor.submitIfAbsent(CARDS_SERVICE,
+                () -> downstreamCache.peekCard(mobileNumber), () -> downstreamCache.getCard(mobileNumber));
+        try {
+            CustomerAccountView customerAccount = findCustomerAccount(mobileNumber);
+            SectionResult<LoanDto> loan = fanOutExecutor.joinSection(loanFuture, LOANS_SERVICE, () -> downstreamCache.peekLoan(mobileNumber));
+            SectionResult<CardDto> card = fanOutExecutor.joinSection(cardFuture, CARDS_SERVICE, () -> downstreamCache.peekCard(mobileNumber));
+            return versioned(customerAccount, loan, null, card, null);
+        } catch (RuntimeException ex) {
+            loanFuture.cancel(true);
+            cardFuture.cancel(true);
+            throw ex;
+        }
+    }
+
+    private CustomerAccountView findCustomerAccount(String mobileNumber) {
+        CustomerAccountView customerAccount = customerRepository.findCustomerAccountByMobileNumber(mobileNumber).orElseThrow(
                 () -> new ResourceNotFoundException("Customer", "mobileNumber", mobileNumber)
         );
-        Account accounts = accountRepository.findByCustomerId(customer.getCustomerId()).orElseThrow(
-                () -> new ResourceNotFoundException("Account", "customerId", customer.getCustomerId().toString())
-        );
+        if (!customerAccount.hasAccount()) {
+            throw new ResourceNotFoundException("Account", "customerId", customerAccount.getCustomerId().toString());
+        }
+        return customerAccount;
+    }
+
+    private static Versioned<CustomerDetailDto> versioned(CustomerAccountView customerAccount, SectionResult<LoanDto> loan, Instant loanAsOf,
+                                                          SectionResult<CardDto> card, Instant cardAsOf) {
+        // loans and cards carry no modification time, their content stands in for it; the watermarks move on every
+        // sync and are left out, otherwise no conditional request would ever match
+        int sectionsHash = Objects.hash(loan.getValue(), loan.getStatus().name(), card.getValue(), card.getStatus().name());
+        String eTag = Versioned.weakETag(customerAccount.getCustomerId() + "." + Integer.toHexString(sectionsHash),
+                customerAccount.getCustomerModifiedAt(), customerAccount.getAccountModifiedAt());
+        return new Versioned<>(eTag, () -> {
+            CustomerDetailDto customerDetailDto = CustomerMapper.mapToCustomerDetailDto(customerAccount, new CustomerDetailDto());
+            customerDetailDto.setLoanDto(loan.getValue());
+            customerDetailDto.setLoanStatus(loan.getStatus());
+            customerDetailDto.setLoanAsOf(loanAsOf);
+            customerDetailDto.setCardDto(card.getValue());
+            customerDetailDto.setCardStatus(card.getStatus());
+            customerDetailDto.setCardAsOf(cardAsOf);
+            return customerDetailDto;
+        });
+    }
 
-        CustomerDetailDto customerDetailDto = CustomerMapper.mapToCustomerDetailDto(customer, new CustomerDetailDto());
-        customerDetailDto.setAccountDto(AccountMapper.mapToAccountsDto(accounts, new AccountDto()));
+    @Override
+    public List<CustomerDetailDto> getCustomerDetails(List<String> mobileNumbers) {
+        Set<String> uniqueMobileNumbers = new LinkedHashSet<>(mobileNumbers);
+        if (readModelProperties.isEnabled()) {
+            return getLocalCustomerDetails(uniqueMobileNumbers);
+        }
+        // one coalesced batch call per downstream, running while the customers and accounts are read
+        CompletableFuture<Map<String, LoanDto>> loansFuture = fanOutExecutor.submit(LOANS_BATCH, () -> downstreamCache.getLoans(uniqueMobileNumbers));
+        CompletableFuture<Map<String, CardDto>> cardsFuture = fanOutExecutor.submit(CARDS_BATCH, () -> downstreamCache.getCards(uniqueMobileNumbers));
+        try {
+            Map<String, CustomerAccountView> customerAccounts = customerRepository.findCustomerAccountsByMobileNumberIn(uniqueMobileNumbers).stream()
+                    .collect(Collectors.toMap(CustomerAccountView::getMobileNumber, Function.identity()));
+
+            SectionResult<Map<String, LoanDto>> loans = fanOutExecutor.joinSection(loansFuture, LOANS_BATCH, () -> null);
+            SectionResult<Map<String, CardDto>> cards = fanOutExecutor.joinSection(cardsFuture, CARDS_BATCH, () -> null);
+
+            List<CustomerDetailDto> customerDetails = new ArrayList<>(customerAccounts.size());
+            for (String mobileNumber : uniqueMobileNumbers) {
+                CustomerAccountView customerAccount = customerAccounts.get(mobileNumber);
+                if (customerAccount == null || !customerAccount.hasAccount()) {
+                    continue;
+                }
+                CustomerDetailDto customerDetailDto = CustomerMapper.mapToCustomerDetailDto(customerAccount, new CustomerDetailDto());
 
-        ResponseEntity<LoanDto> loanDtoResponseEntity = loanFeignClient.getLoan(mobileNumber);
-        customerDetailDto.setLoanDto(loanDtoResponseEntity.getBody());
+                SectionResult<LoanDto> loan = sectionOf(loans, mobileNumber, downstreamCache::peekLoan);
+                customerDetailDto.setLoanDto(loan.getValue());
+                customerDetailDto.setLoanStatus(loan.getStatus());
+
+                SectionResult<CardDto> card = sectionOf(cards, mobileNumber, downstreamCache::peekCard);
+                customerDetailDto.setCardDto(card.getValue());
+                customerDetailDto.setCardStatus(card.getStatus());
+
+                customerDetails.add(customerDetailDto);
+            }
+            return customerDetails;
+        } catch (RuntimeException ex) {
+            loansFuture.cancel(true);
+            cardsFuture.cancel(true);
+            throw ex;
+        }
+    }
 
-        ResponseEntity<CardDto> cardDtoResponseEntity = cardFeignClient.getCard(mobileNumber);
-        customerDetailDto.setCardDto(cardDtoResponseEntity.getBody());
+    private List<CustomerDetailDto> getLocalCustomerDetails(Set<String> mobileNumbers) {
+        List<CustomerAccountView> customerAccounts = customerRepository.findCustomerAccountsByMobileNumberIn(mobileNumbers);
+        Map<String, LoanDto> loans = summaryReadModel.findLoans(mobileNumbers);
+        Map<String, CardDto> cards = summaryReadModel.findCards(mobileNumbers);
+        Instant loanAsOf = summaryReadModel.watermark(LOAN_EVENTS);
+        Instant cardAsOf = summaryReadModel.watermark(CARD_EVENTS);
+
+        Map<String, CustomerAccountView> customerAccountsByMobileNumber = customerAccounts.stream()
+                .collect(Collectors.toMap(CustomerAccountView::getMobileNumber, Function.identity()));
+        List<CustomerDetailDto> customerDetails = new ArrayList<>(customerAccounts.size());
+        for (String mobileNumber : mobileNumbers) {
+            CustomerAccountView customerAccount = customerAccountsByMobileNumber.get(mobileNumber);
+            if (customerAccount == null || !customerAccount.hasAccount()) {
+                continue;
+            }
+            CustomerDetailDto customerDetailDto = CustomerMapper.mapToCustomerDetailDto(customerAccount, new CustomerDetailDto());
+
+            SectionResult<LoanDto> loan = summaryReadModel.section(LOAN_EVENTS, loans.get(mobileNumber));
+            customerDetailDto.setLoanDto(loan.getValue());
+            customerDetailDto.setLoanStatus(loan.getStatus());
+            customerDetailDto.setLoanAsOf(loanAsOf);
+
+            SectionResult<CardDto> card = summaryReadModel.section(CARD_EVENTS, cards.get(mobileNumber));
+            customerDetailDto.setCardDto(card.getValue());
+            customerDetailDto.setCardStatus(card.getStatus());
+            customerDetailDto.setCardAsOf(cardAsOf);
+
+            customerDetails.add(customerDetailDto);
+        }
+        return customerDetails;
+    }
 
-        return customerDetailDto;
+    private static <T> SectionResult<T> sectionOf(SectionResult<Map<String, T>> batch, String mobileNumber, Function<String, T> lastKnown) {
+        if (batch.getStatus() == SectionStatus.AVAILABLE) {
+            T value = batch.getValue().get(mobileNumber);
+            return value != null ? SectionResult.available(value) : SectionResult.missing();
+        }
+        T value = lastKnown.apply(mobileNumber);
+        return value != null ? SectionResult.stale(value) : SectionResult.missing();
     }
 }
@@ -0,0 +1,93 @@
+package com.charly.accounts.service.impl;
+
+import com.charly.accounts.aggregation.AggregationProperties;
+import com.charly.accounts.aggregation.SectionResult;
+import com.charly.accounts.dto.CardDto;
+import com.charly.accounts.dto.CustomerDetailDto;
+import com.charly.accounts.dto.LoanDto;
+import com.charly.accounts.exception.DownstreamTimeoutException;
+import com.charly.accounts.exception.ResourceNotFoundException;
+import com.charly.accounts.mapper.CustomerMapper;
+import com.charly.accounts.repository.CustomerRepository;
+import com.charly.accounts.repository.projection.CustomerAccountView;
+import com.charly.accounts.service.ReactiveCustomerService;
+import com.charly.accounts.service.client.DownstreamCache;
+import com.charly.accounts.service.client.DownstreamWebClient;
+import lombok.AllArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static com.charly.accounts.constant.AccountConstant.CARDS_SERVICE;
+import static com.charly.accounts.constant.AccountConstant.LOANS_SERVICE;
+
+/**
+ * Same aggregation as {@link CustomerServiceImpl#getCustomerDetail(String)} without holding a thread per request:
+ * the loans and cards calls run on the Netty event loop and only the repository read uses a thread, taken from the
+ * bounded {@code jdbcScheduler}. Budgets, partial results and the downstream cache behave as in the blocking path.
+ */
+@Service
+@AllArgsConstructor
+public class ReactiveCustomerServiceImpl implements ReactiveCustomerService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveCustomerServiceImpl.class);
+
+    private CustomerRepository customerRepository;
+    private DownstreamCache downstreamCache;
+    private DownstreamWebClient downstreamWebClient;
+    private AggregationProperties properties;
+    private Scheduler jdbcScheduler;
+
+    @Override
+    public Mono<CustomerDetailDto> getCustomerDetail(String mobileNumber) {
+        Mono<CustomerAccountView> customerAccount = Mono.fromCallable(() -> customerRepository.findCustomerAccountByMobileNumber(mobileNumber))
+                .subscribeOn(jdbcScheduler)
+                .flatMap(Mono::justOrEmpty)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Customer", "mobileNumber", mobileNumber)))
+                .flatMap(view -> view.hasAccount() ? Mono.just(view)
+                        : Mono.error(new ResourceNotFoundException("Account", "customerId", view.getCustomerId().toString())));
+        Mono<SectionResult<LoanDto>> loan = section(LOANS_SERVICE, () -> downstreamCache.peekLoan(mobileNumber),
+                () -> downstreamWebClient.getLoan(mobileNumber), downstreamCache::putLoan);
+        Mono<SectionResult<CardDto>> card = section(CARDS_SERVICE, () -> downstreamCache.peekCard(mobileNumber),
+                () -> downstreamWebClient.getCard(mobileNumber), downstreamCache::putCard);
+
+        // all three are subscribed at once, a failing customer lookup cancels the downstream calls
+        return Mono.zip(customerAccount, loan, card).map(result -> {
+            CustomerDetailDto customerDetailDto = CustomerMapper.mapToCustomerDetailDto(result.getT1(), new CustomerDetailDto());
+            customerDetailDto.setLoanDto(result.getT2().getValue());
+            customerDetailDto.setLoanStatus(result.getT2().getStatus());
+            customerDetailDto.setCardDto(result.getT3().getValue());
+            customerDetailDto.setCardStatus(result.getT3().getStatus());
+            return customerDetailDto;
+        });
+    }
+
+    private <T> Mono<SectionResult<T>> section(String service, Supplier<T> lastKnown, Supplier<Mono<T>> call, Consumer<T> store) {
+        T cached = lastKnown.get();
+        if (cached != null) {
+            return Mono.just(SectionResult.available(cached));
+        }
+        Duration budget = properties.budgetFor(service);
+        Mono<SectionResult<T>> fetched = Mono.defer(call)
+                .timeout(budget)
+                .doOnNext(store)
+                .map(SectionResult::available)
+                .defaultIfEmpty(SectionResult.missing())
+                .onErrorMap(TimeoutException.class, ex -> new DownstreamTimeoutException(service, budget));
+        if (!properties.isPartialResults()) {
+            return fetched;
+        }
+        return fetched.onErrorResume(ex -> {
+            log.warn("Serving response without {} section: {}", service, ex.getMessage());
+            T value = lastKnown.get();
+            return Mono.just(value != null ? SectionResult.stale(value) : SectionResult.missing());
+        });
+    }
+}
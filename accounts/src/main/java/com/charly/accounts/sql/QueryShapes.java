@@ -0,0 +1,150 @@
+package com.charly.accounts.sql;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Groups SQL statements by shape: the statement with whitespace collapsed and IN lists of any length folded into one
+ * placeholder. Each shape gets a short stable id, such as {@code select_customers_1a2b3c4d}, and a timer tagged with it.
+ */
+@Component
+public class QueryShapes {
+
+    static final String TIMER = "sql.queries";
+
+    private static final String OTHER = "other";
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+
+    private static final Pattern TABLE = Pattern.compile("(?i)\\b(?:from|into|update)\\s+([\\w.`\"]+)");
+
+    private static final Pattern DDL_TABLE = Pattern.compile("(?i)\\b(?:table|on)\\s+(?:if\\s+(?:not\\s+)?exists\\s+)?([\\w.`\"]+)");
+
+    private final MeterRegistry meterRegistry;
+
+    private final int maxShapes;
+
+    // keyed by the statement as executed, so the normalisation runs once per distinct statement
+    private final Map<String, Shape> byStatement = new ConcurrentHashMap<>();
+
+    private final Map<String, Shape> byId = new ConcurrentHashMap<>();
+
+    private final Shape other;
+
+    public QueryShapes(MeterRegistry meterRegistry, SqlObservabilityProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.maxShapes = properties.getMaxShapes();
+        this.other = new Shape(OTHER, "statements beyond the first " + maxShapes + " shapes", meterRegistry);
+    }
+
+    /**
+     * @param sql - statement as sent to the driver
+     * @return the shape of the statement, or the shared "other" shape once the shape limit is reached
+     */
+    public Shape of(String sql) {
+        Shape shape = byStatement.get(sql);
+        if (shape != null) {
+            return shape;
+        }
+        String normalized = normalize(sql);
+        String id = idOf(normalized);
+        shape = byId.get(id);
+        if (shape == null) {
+            if (byId.size() >= maxShapes) {
+                return other;
+            }
+            shape = byId.computeIfAbsent(id, key -> new Shape(key, normalized, meterRegistry));
+        }
+        // bounded like the shapes themselves, IN lists of every length would otherwise each add an entry
+        if (byStatement.size() < maxShapes * 4) {
+            byStatement.put(sql, shape);
+        }
+        return shape;
+    }
+
+    /**
+     * @return every shape seen so far by id, with its normalised statement
+     */
+    public Map<String, String> shapes() {
+        Map<String, String> shapes = new TreeMap<>();
+        byId.values().forEach(shape -> shapes.put(shape.id(), shape.sql()));
+        return shapes;
+    }
+
+    static String normalize(String sql) {
+        String collapsed = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        return IN_LIST.matcher(collapsed).replaceAll("in (?...)");
+    }
+
+    private static String idOf(String normalized) {
+        String verb = normalized.split(" ", 2)[0].toLowerCase(Locale.ROOT);
+        return verb + "_" + tableOf(normalized) + "_" + String.format("%08x", normalized.hashCode());
+    }
+
+    private static String tableOf(String normalized) {
+        Matcher table = TABLE.matcher(normalized);
+        if (!table.find()) {
+            table = DDL_TABLE.matcher(normalized);
+            if (!table.find()) {
+                return "none";
+            }
+        }
+        String name = table.group(1).replace("`", "").replace("\"", "").toLowerCase(Locale.ROOT);
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * A statement shape with its timers, registered on first use so shapes that never fail add no error series.
+     */
+    public static final class Shape {
+
+        private final String id;
+
+        private final String sql;
+
+        private final MeterRegistry meterRegistry;
+
+        private volatile Timer success;
+
+        private volatile Timer error;
+
+        private Shape(String id, String sql, MeterRegistry meterRegistry) {
+            this.id = id;
+            this.sql = sql;
+            this.meterRegistry = meterRegistry;
+        }
+
+        public String id() {
+            return id;
+        }
+
+        public String sql() {
+            return sql;
+        }
+
+        public void record(long elapsedNanos, boolean succeeded) {
+            Timer timer = succeeded ? success : error;
+            if (timer == null) {
+                // registering twice from racing threads is harmless, the registry returns the same timer
+                timer = Timer.builder(TIMER).tag("query", id).tag("outcome", succeeded ? "success" : "error").register(meterRegistry);
+                if (succeeded) {
+                    success = timer;
+                } else {
+                    error = timer;
+                }
+            }
+            timer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
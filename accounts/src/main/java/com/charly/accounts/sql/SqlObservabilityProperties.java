@@ -0,0 +1,28 @@
+package com.charly.accounts.sql;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "sql-observability")
+public class SqlObservabilityProperties {
+
+    /**
+     * Statements taking at least this long are logged at WARN on the sql.slow logger.
+     */
+    private Duration slowQueryThreshold = Duration.ofMillis(200);
+
+    /**
+     * Fraction of all statements, between 0 and 1, logged at INFO on the sql.sampled logger.
+     */
+    private double sampleRate = 0.001;
+
+    /**
+     * Distinct query shapes given their own timer; statements of any further shape are timed as "other".
+     */
+    private int maxShapes = 500;
+}
@@ -0,0 +1,3 @@
+CREATE UNIQUE INDEX `ux_customers_mobile_number` ON `customers` (`mobile_number`);
+
+CREATE UNIQUE INDEX `ux_accounts_customer_id` ON `accounts` (`customer_id`);
@@ -0,0 +1,12 @@
+CREATE TABLE IF NOT EXISTS `number_sequences`
+(
+    `sequence_name` varchar(50) NOT NULL,
+    `next_value`    bigint      NOT NULL,
+    `max_value`     bigint      NOT NULL,
+    PRIMARY KEY (`sequence_name`)
+);
+
+ALTER TABLE `accounts` MODIFY `account_number` bigint AUTO_INCREMENT;
+
+INSERT INTO `number_sequences` (`sequence_name`, `next_value`, `max_value`)
+VALUES ('account_number', 2000000000, 9999999999);
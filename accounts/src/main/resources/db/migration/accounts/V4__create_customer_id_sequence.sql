@@ -0,0 +1,4 @@
+-- customer ids are taken from blocks of this sequence, so inserts no longer depend on AUTO_INCREMENT and can be batched
+INSERT INTO `number_sequences` (`sequence_name`, `next_value`, `max_value`)
+SELECT 'customer_id', COALESCE(MAX(`customer_id`), 0) + 1, 2147483647
+FROM `customers`;
@@ -0,0 +1,5 @@
+ALTER TABLE `customers` MODIFY `created_at` datetime(6) NOT NULL;
+ALTER TABLE `customers` MODIFY `updated_at` datetime(6) DEFAULT NULL;
+
+ALTER TABLE `accounts` MODIFY `created_at` datetime(6) NOT NULL;
+ALTER TABLE `accounts` MODIFY `updated_at` datetime(6) DEFAULT NULL;
@@ -0,0 +1,32 @@
+CREATE TABLE IF NOT EXISTS `loan_summaries`
+(
+    `mobile_number`      varchar(15)  NOT NULL,
+    `loan_number`        varchar(100) NOT NULL,
+    `loan_type`          varchar(100) NOT NULL,
+    `total_loan`         int          NOT NULL,
+    `amount_paid`        int          NOT NULL,
+    `outstanding_amount` int          NOT NULL,
+    `deleted`            boolean      NOT NULL,
+    `source_event_id`    bigint       NOT NULL,
+    PRIMARY KEY (`mobile_number`)
+);
+
+CREATE TABLE IF NOT EXISTS `card_summaries`
+(
+    `mobile_number`    varchar(15)  NOT NULL,
+    `card_number`      varchar(100) NOT NULL,
+    `card_type`        varchar(100) NOT NULL,
+    `total_limit`      int          NOT NULL,
+    `amount_used`      int          NOT NULL,
+    `available_amount` int          NOT NULL,
+    `deleted`          boolean      NOT NULL,
+    `source_event_id`  bigint       NOT NULL,
+    PRIMARY KEY (`mobile_number`)
+);
+
+CREATE TABLE IF NOT EXISTS `event_offsets`
+(
+    `topic`       varchar(50) NOT NULL,
+    `next_offset` bigint      NOT NULL,
+    PRIMARY KEY (`topic`)
+);
@@ -0,0 +1 @@
+ALTER TABLE `event_offsets` ADD COLUMN `log_id` varchar(64) DEFAULT NULL;
@@ -0,0 +1,117 @@
+package com.charly.accounts.idempotency;
+
+import com.charly.accounts.dto.CustomerDto;
+import com.charly.accounts.dto.ResponseDto;
+import com.charly.accounts.exception.IdempotencyKeyReusedException;
+import com.charly.accounts.exception.IdempotentRequestInProgressException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotentRequestsTest {
+
+    private static final String KEY = "3f1c2b7e";
+
+    private final IdempotentRequests idempotentRequests = new IdempotentRequests(
+            new CaffeineIdempotencyStore(new IdempotencyProperties(), new SimpleMeterRegistry()), new ObjectMapper());
+
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @Test
+    void requestWithoutKeyRunsEveryTime() {
+        idempotentRequests.execute("createAccount", null, customer("4354437687"), created());
+        idempotentRequests.execute("createAccount", null, customer("4354437687"), created());
+
+        assertThat(runs).hasValue(2);
+    }
+
+    @Test
+    void retryReplaysTheStoredResponse() {
+        ResponseEntity<ResponseDto> first = idempotentRequests.execute("createAccount", KEY, customer("4354437687"), created());
+        ResponseEntity<ResponseDto> retry = idempotentRequests.execute("createAccount", KEY, customer("4354437687"), created());
+
+        assertThat(runs).hasValue(1);
+        assertThat(first.getHeaders().containsKey(IdempotentRequests.REPLAYED_HEADER)).isFalse();
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getBody()).isEqualTo(first.getBody());
+        assertThat(retry.getHeaders().getFirst(IdempotentRequests.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    void sameParametersInAnotherOrderAreReplayed() {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("name", "Madan Reddy");
+        parameters.put("mobileNumber", "4354437687");
+        Map<String, String> reordered = new LinkedHashMap<>();
+        reordered.put("mobileNumber", "4354437687");
+        reordered.put("name", "Madan Reddy");
+
+        idempotentRequests.execute("createAccount", KEY, parameters, created());
+        ResponseEntity<ResponseDto> retry = idempotentRequests.execute("createAccount", KEY, reordered, created());
+
+        assertThat(runs).hasValue(1);
+        assertThat(retry.getHeaders().getFirst(IdempotentRequests.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    void retryWhileTheRequestRunsIsRejected() {
+        assertThatThrownBy(() -> idempotentRequests.execute("createAccount", KEY, customer("4354437687"), () ->
+                idempotentRequests.execute("createAccount", KEY, customer("4354437687"), created())))
+                .isInstanceOf(IdempotentRequestInProgressException.class);
+        assertThat(runs).hasValue(0);
+    }
+
+    @Test
+    void keyReusedForOtherParametersIsRejected() {
+        idempotentRequests.execute("createAccount", KEY, customer("4354437687"), created());
+
+        assertThatThrownBy(() -> idempotentRequests.execute("createAccount", KEY, customer("4354437688"), created()))
+                .isInstanceOf(IdempotencyKeyReusedException.class);
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void failedRequestFreesItsKey() {
+        assertThatThrownBy(() -> idempotentRequests.execute("createAccount", KEY, customer("4354437687"), () -> {
+            throw new IllegalStateException("database unavailable");
+        })).isInstanceOf(IllegalStateException.class);
+
+        ResponseEntity<ResponseDto> retry = idempotentRequests.execute("createAccount", KEY, customer("4354437687"), created());
+
+        assertThat(runs).hasValue(1);
+        assertThat(retry.getHeaders().containsKey(IdempotentRequests.REPLAYED_HEADER)).isFalse();
+    }
+
+    @Test
+    void keysAreScopedPerOperation() {
+        idempotentRequests.execute("createAccount", KEY, customer("4354437687"), created());
+        idempotentRequests.execute("createAccounts", KEY, customer("4354437687"), created());
+
+        assertThat(runs).hasValue(2);
+    }
+
+    private Supplier<ResponseEntity<ResponseDto>> created() {
+        return () -> {
+            runs.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.CREATED).body(new ResponseDto("201", "Account created successfully"));
+        };
+    }
+
+    private static CustomerDto customer(String mobileNumber) {
+        CustomerDto customerDto = new CustomerDto();
+        customerDto.setName("Madan Reddy");
+        customerDto.setEmail("tutor@eazybytes.com");
+        customerDto.setMobileNumber(mobileNumber);
+        return customerDto;
+    }
+}
@@ -0,0 +1,89 @@
+package com.charly.accounts.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class InstanceStatsTest {
+
+    private static final long DECAY = TimeUnit.SECONDS.toNanos(10);
+
+    private static final long INITIAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final InstanceStats stats = new InstanceStats(new LoadBalancingProperties(), 0);
+
+    @Test
+    void slowerCallReplacesTheAverageAndFasterOnesPullItDownGradually() {
+        stats.started();
+        stats.completed(millis(400), false, 0);
+        assertThat(stats.latency(0)).isEqualTo(millis(400));
+
+        stats.started();
+        stats.completed(millis(20), false, DECAY);
+
+        assertThat(stats.latency(DECAY)).isCloseTo(millis(400) / Math.E + millis(20) * (1 - 1 / Math.E), within(1.0));
+    }
+
+    @Test
+    void latencyDecaysTowardsZeroAndBaselineTowardsTheInitialLatency() {
+        stats.started();
+        stats.completed(millis(400), false, 0);
+
+        assertThat(stats.latency(DECAY)).isCloseTo(millis(400) / Math.E, within(1.0));
+        assertThat(stats.baseline(DECAY)).isCloseTo(millis(400) / Math.E + INITIAL * (1 - 1 / Math.E), within(1.0));
+        assertThat(stats.baseline(100 * DECAY)).isCloseTo(INITIAL, within(1.0));
+    }
+
+    @Test
+    void onlyACallWithinTheDecayTimeIsARecentSample() {
+        assertThat(stats.hasRecentSample(0)).isFalse();
+
+        stats.started();
+        stats.completed(millis(20), false, 0);
+
+        assertThat(stats.hasRecentSample(DECAY - 1)).isTrue();
+        assertThat(stats.hasRecentSample(DECAY)).isFalse();
+    }
+
+    @Test
+    void costGrowsWithTheCallsInFlight() {
+        stats.started();
+        stats.completed(millis(20), false, 0);
+        double idle = stats.cost(0);
+
+        stats.started();
+        stats.started();
+
+        assertThat(stats.cost(0)).isEqualTo(3 * idle);
+    }
+
+    @Test
+    void ejectionTimeGrowsWithEjectionsInARowUpToTheMultiplier() {
+        for (int ejections = 1; ejections <= 12; ejections++) {
+            stats.eject(1_000, 10, 0);
+        }
+
+        assertThat(stats.isEjected(9_999)).isTrue();
+        assertThat(stats.isEjected(10_000)).isFalse();
+    }
+
+    @Test
+    void goodCallAfterTheReturnResetsTheMultiplier() {
+        stats.eject(1_000, 10, 0);
+        stats.eject(1_000, 10, 0);
+        stats.started();
+        stats.completed(millis(20), false, 2_000);
+
+        stats.eject(1_000, 10, 2_000);
+
+        assertThat(stats.isEjected(2_999)).isTrue();
+        assertThat(stats.isEjected(3_000)).isFalse();
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
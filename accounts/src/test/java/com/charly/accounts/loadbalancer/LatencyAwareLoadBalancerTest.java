@@ -0,0 +1,116 @@
+package com.charly.accounts.loadbalancer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LatencyAwareLoadBalancerTest {
+
+    private final LoadBalancingProperties properties = new LoadBalancingProperties();
+
+    private long clock;
+
+    private final LatencyTracker latencyTracker = new LatencyTracker(properties, new SimpleMeterRegistry(), () -> clock);
+
+    private final ServiceInstance first = instance(1);
+
+    private final ServiceInstance second = instance(2);
+
+    private final ServiceInstance third = instance(3);
+
+    @Test
+    void picksTheFasterOfTwoReplicas() {
+        call(first, 20, false);
+        call(second, 150, false);
+
+        assertThat(pick(100, first, second)).containsExactly(first);
+    }
+
+    @Test
+    void callsInFlightMakeAReplicaMoreExpensive() {
+        call(first, 20, false);
+        call(second, 20, false);
+        latencyTracker.onStartRequest(new DefaultRequest<>(new RequestDataContext()), new DefaultResponse(first));
+
+        assertThat(pick(100, first, second)).containsExactly(second);
+    }
+
+    @Test
+    void mostExpensiveOfThreeIsNeverPicked() {
+        call(first, 20, false);
+        call(second, 50, false);
+        call(third, 150, false);
+
+        assertThat(pick(200, first, second, third)).containsExactlyInAnyOrder(first, second);
+    }
+
+    @Test
+    void ejectedReplicasAreSkipped() {
+        latencyTracker.stats(second);
+        fail(first, 5);
+
+        assertThat(pick(100, first, second)).containsExactly(second);
+    }
+
+    @Test
+    void everyReplicaEjectedFallsBackToAllOfThem() {
+        properties.setMaxEjectedPercent(100);
+        fail(first, 5);
+        fail(second, 5);
+
+        assertThat(pick(100, first, second)).isNotEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<ServiceInstance> pick(int times, ServiceInstance... instances) {
+        ServiceInstanceListSupplier supplier = mock(ServiceInstanceListSupplier.class);
+        when(supplier.get(any(Request.class))).thenReturn(Flux.just(List.of(instances)));
+        ObjectProvider<ServiceInstanceListSupplier> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable(any())).thenReturn(supplier);
+        LatencyAwareLoadBalancer loadBalancer = new LatencyAwareLoadBalancer(provider, latencyTracker);
+
+        Set<ServiceInstance> picked = new HashSet<>();
+        for (int i = 0; i < times; i++) {
+            picked.add(loadBalancer.choose(new DefaultRequest<>()).block().getServer());
+        }
+        return picked;
+    }
+
+    private void fail(ServiceInstance instance, int times) {
+        for (int i = 0; i < times; i++) {
+            call(instance, 20, true);
+        }
+    }
+
+    private void call(ServiceInstance instance, long latencyMillis, boolean failed) {
+        Request<RequestDataContext> request = new DefaultRequest<>(new RequestDataContext());
+        Response<ServiceInstance> response = new DefaultResponse(instance);
+        latencyTracker.onStartRequest(request, response);
+        clock += TimeUnit.MILLISECONDS.toNanos(latencyMillis);
+        latencyTracker.onComplete(new CompletionContext<>(failed ? CompletionContext.Status.FAILED : CompletionContext.Status.SUCCESS, request, response));
+    }
+
+    private static ServiceInstance instance(int replica) {
+        return new DefaultServiceInstance("loans-" + replica, "loans", "loans-" + replica, 8090, false);
+    }
+}
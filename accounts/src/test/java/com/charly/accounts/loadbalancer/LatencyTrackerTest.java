@@ -0,0 +1,150 @@
+package com.charly.accounts.loadbalancer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyTrackerTest {
+
+    private final LoadBalancingProperties properties = new LoadBalancingProperties();
+
+    private long clock;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final LatencyTracker latencyTracker = new LatencyTracker(properties, meterRegistry, () -> clock);
+
+    private final ServiceInstance first = instance(1);
+
+    private final ServiceInstance second = instance(2);
+
+    private final ServiceInstance third = instance(3);
+
+    @Test
+    void failedCallsInARowEjectTheReplica() {
+        latencyTracker.stats(second);
+        fail(first, 4);
+        assertThat(isEjected(first)).isFalse();
+
+        fail(first, 1);
+
+        assertThat(isEjected(first)).isTrue();
+        assertThat(meterRegistry.counter("loadbalancer.ejections", "service", "loans", "instance", "loans-1:8090").count()).isEqualTo(1);
+    }
+
+    @Test
+    void goodCallResetsTheFailuresInARow() {
+        latencyTracker.stats(second);
+        fail(first, 4);
+        call(first, 20, false);
+        fail(first, 4);
+
+        assertThat(isEjected(first)).isFalse();
+    }
+
+    @Test
+    void ejectionsAreCappedAtTheMaxEjectedPercent() {
+        latencyTracker.stats(second);
+        fail(first, 5);
+        fail(second, 5);
+
+        assertThat(isEjected(first)).isTrue();
+        assertThat(isEjected(second)).isFalse();
+    }
+
+    @Test
+    void ejectionTimeGrowsWhenAReplicaFailsAgainRightAfterItsReturn() {
+        latencyTracker.stats(second);
+        fail(first, 5);
+        advance(TimeUnit.SECONDS.toNanos(31));
+        assertThat(isEjected(first)).isFalse();
+
+        fail(first, 5);
+        advance(TimeUnit.SECONDS.toNanos(31));
+        assertThat(isEjected(first)).isTrue();
+
+        advance(TimeUnit.SECONDS.toNanos(30));
+        assertThat(isEjected(first)).isFalse();
+    }
+
+    @Test
+    void slowReplicaIsEjectedAsALatencyOutlier() {
+        call(second, 20, false);
+        call(third, 20, false);
+
+        call(first, 400, false);
+
+        assertThat(isEjected(first)).isTrue();
+    }
+
+    @Test
+    void replicasWithoutRecentCallsDoNotSetTheBaseline() {
+        call(second, 20, false);
+        call(third, 20, false);
+        advance(TimeUnit.SECONDS.toNanos(60));
+
+        call(first, 400, false);
+
+        assertThat(isEjected(first)).isFalse();
+    }
+
+    @Test
+    void baselineDecaysTowardsTheInitialLatencyNotZero() {
+        call(second, 80, false);
+        call(third, 80, false);
+        advance(TimeUnit.SECONDS.toNanos(9));
+
+        call(first, 210, false);
+
+        assertThat(isEjected(first)).isFalse();
+    }
+
+    @Test
+    void abandonedCallsCountAsFailures() {
+        latencyTracker.stats(second);
+        latencyTracker.stats(first);
+        for (int i = 0; i < 5; i++) {
+            latencyTracker.stats(first).started();
+            latencyTracker.abandoned(first.getUri(), TimeUnit.MILLISECONDS.toNanos(500));
+        }
+
+        assertThat(isEjected(first)).isTrue();
+    }
+
+    private void fail(ServiceInstance instance, int times) {
+        for (int i = 0; i < times; i++) {
+            call(instance, 20, true);
+        }
+    }
+
+    private void call(ServiceInstance instance, long latencyMillis, boolean failed) {
+        Request<RequestDataContext> request = new DefaultRequest<>(new RequestDataContext());
+        Response<ServiceInstance> response = new DefaultResponse(instance);
+        latencyTracker.onStartRequest(request, response);
+        advance(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+        latencyTracker.onComplete(new CompletionContext<>(failed ? CompletionContext.Status.FAILED : CompletionContext.Status.SUCCESS, request, response));
+    }
+
+    private void advance(long nanos) {
+        clock += nanos;
+    }
+
+    private boolean isEjected(ServiceInstance instance) {
+        return latencyTracker.stats(instance).isEjected(clock);
+    }
+
+    private static ServiceInstance instance(int replica) {
+        return new DefaultServiceInstance("loans-" + replica, "loans", "loans-" + replica, 8090, false);
+    }
+}
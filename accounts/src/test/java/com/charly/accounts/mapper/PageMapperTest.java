@@ -0,0 +1,62 @@
+package com.charly.accounts.mapper;
+
+import com.charly.accounts.dto.PageDto;
+import com.charly.accounts.exception.InvalidPageTokenException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageMapperTest {
+
+    @Test
+    void missingTokenStartsAtTheFirstPage() {
+        assertThat(PageMapper.mapToLastKey(null)).isEqualTo(PageMapper.FIRST_PAGE_KEY);
+        assertThat(PageMapper.mapToLastKey(" ")).isEqualTo(PageMapper.FIRST_PAGE_KEY);
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {0L, 1L, 100L, Long.MAX_VALUE})
+    void tokenRoundTripsTheLastKey(long lastKey) {
+        String pageToken = PageMapper.mapToPageToken(lastKey);
+
+        assertThat(pageToken).matches("[A-Za-z0-9_-]+");
+        assertThat(PageMapper.mapToLastKey(pageToken)).isEqualTo(lastKey);
+    }
+
+    @ParameterizedTest
+    // raw text, "v1:" without a key, "v2:100", "v1:abc"
+    @ValueSource(strings = {"not a token!", "djE6", "djI6MTAw", "djE6YWJj"})
+    void rejectsTokensItDidNotIssue(String pageToken) {
+        assertThatThrownBy(() -> PageMapper.mapToLastKey(pageToken))
+                .isInstanceOf(InvalidPageTokenException.class)
+                .hasMessageContaining(pageToken);
+    }
+
+    @Test
+    void extraRowYieldsTokenOfTheLastReturnedRow() {
+        List<Long> rows = LongStream.rangeClosed(11, 14).boxed().toList();
+
+        PageDto<String> page = PageMapper.mapToPageDto(rows, 3, Function.identity(), String::valueOf);
+
+        assertThat(page.getItems()).containsExactly("11", "12", "13");
+        assertThat(PageMapper.mapToLastKey(page.getNextPageToken())).isEqualTo(13L);
+    }
+
+    @Test
+    void lastPageHasNoToken() {
+        PageDto<String> full = PageMapper.mapToPageDto(List.of(1L, 2L, 3L), 3, Function.identity(), String::valueOf);
+        PageDto<String> empty = PageMapper.mapToPageDto(List.<Long>of(), 3, Function.identity(), String::valueOf);
+
+        assertThat(full.getItems()).containsExactly("1", "2", "3");
+        assertThat(full.getNextPageToken()).isNull();
+        assertThat(empty.getItems()).isEmpty();
+        assertThat(empty.getNextPageToken()).isNull();
+    }
+}
@@ -0,0 +1,76 @@
+package com.charly.accounts.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FileEventBrokerTest {
+
+    private static final String TOPIC = "loans";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void pollReadsOnFromTheReturnedOffset() {
+        FileEventBroker eventBroker = new FileEventBroker(directory, objectMapper);
+        eventBroker.publish(TOPIC, List.of(event(1), event(2), event(3)));
+
+        EventBatch first = eventBroker.poll(TOPIC, 0, 2);
+        EventBatch second = eventBroker.poll(TOPIC, first.nextOffset(), 2);
+
+        assertThat(first.events()).extracting(ChangeEvent::eventId).containsExactly(1L, 2L);
+        assertThat(second.events()).extracting(ChangeEvent::eventId).containsExactly(3L);
+        assertThat(second.logId()).isNotNull().isEqualTo(first.logId());
+        assertThat(eventBroker.poll(TOPIC, second.nextOffset(), 2).events()).isEmpty();
+    }
+
+    @Test
+    void offsetIntoAMissingLogIsOutOfRange() {
+        FileEventBroker eventBroker = new FileEventBroker(directory, objectMapper);
+
+        assertThat(eventBroker.poll(TOPIC, 0, 10).events()).isEmpty();
+        assertThatThrownBy(() -> eventBroker.poll(TOPIC, 120, 10)).isInstanceOf(OffsetOutOfRangeException.class);
+    }
+
+    @Test
+    void offsetPastTheEndOrInsideALineIsOutOfRange() {
+        FileEventBroker eventBroker = new FileEventBroker(directory, objectMapper);
+        eventBroker.publish(TOPIC, List.of(event(1), event(2)));
+        long end = eventBroker.poll(TOPIC, 0, 10).nextOffset();
+
+        assertThatThrownBy(() -> eventBroker.poll(TOPIC, end + 1, 10)).isInstanceOf(OffsetOutOfRangeException.class);
+        assertThatThrownBy(() -> eventBroker.poll(TOPIC, end - 5, 10)).isInstanceOf(OffsetOutOfRangeException.class);
+        assertThatThrownBy(() -> eventBroker.poll(TOPIC, 3, 10)).isInstanceOf(OffsetOutOfRangeException.class);
+    }
+
+    @Test
+    void recreatedLogHasANewLogId() throws IOException {
+        FileEventBroker eventBroker = new FileEventBroker(directory, objectMapper);
+        eventBroker.publish(TOPIC, List.of(event(1)));
+        String logId = eventBroker.poll(TOPIC, 0, 10).logId();
+
+        Files.delete(directory.resolve(TOPIC + ".ndjson"));
+        eventBroker.publish(TOPIC, List.of(event(2)));
+
+        EventBatch batch = eventBroker.poll(TOPIC, 0, 10);
+        assertThat(batch.logId()).isNotEqualTo(logId);
+        assertThat(batch.events()).extracting(ChangeEvent::eventId).containsExactly(2L);
+    }
+
+    private ChangeEvent event(long eventId) {
+        return new ChangeEvent(eventId, TOPIC, "4354437687", EventType.UPDATED, Instant.now(),
+                objectMapper.createObjectNode().put("amountPaid", eventId * 100));
+    }
+}
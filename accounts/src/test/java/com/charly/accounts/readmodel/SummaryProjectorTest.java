@@ -0,0 +1,217 @@
+package com.charly.accounts.readmodel;
+
+import com.charly.accounts.dto.CardDto;
+import com.charly.accounts.dto.LoanDto;
+import com.charly.accounts.dto.PageDto;
+import com.charly.accounts.dto.SectionStatus;
+import com.charly.accounts.entity.EventOffset;
+import com.charly.accounts.entity.LoanSummary;
+import com.charly.accounts.outbox.ChangeEvent;
+import com.charly.accounts.outbox.EventType;
+import com.charly.accounts.outbox.InMemoryEventBroker;
+import com.charly.accounts.repository.CardSummaryRepository;
+import com.charly.accounts.repository.EventOffsetRepository;
+import com.charly.accounts.repository.LoanSummaryRepository;
+import com.charly.accounts.service.client.CardFeignClient;
+import com.charly.accounts.service.client.LoanFeignClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.StreamSupport;
+
+import static com.charly.accounts.constant.AccountConstant.LOAN_EVENTS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SummaryProjectorTest {
+
+    private static final String MOBILE_NUMBER = "4354437687";
+
+    private static final String OTHER_MOBILE_NUMBER = "4354437688";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<String, LoanSummary> loanSummaries = new HashMap<>();
+
+    private final Map<String, EventOffset> offsets = new HashMap<>();
+
+    private final LoanFeignClient loanFeignClient = mock(LoanFeignClient.class);
+
+    private final InMemoryEventBroker eventBroker = new InMemoryEventBroker(1_000);
+
+    private SummaryReadModel summaryReadModel;
+
+    private SummaryProjector summaryProjector;
+
+    @BeforeEach
+    void setUp() {
+        LoanSummaryRepository loanSummaryRepository = mock(LoanSummaryRepository.class);
+        when(loanSummaryRepository.findAllById(any())).thenAnswer(invocation -> StreamSupport
+                .stream(invocation.<Iterable<String>>getArgument(0).spliterator(), false).distinct()
+                .map(loanSummaries::get).filter(summary -> summary != null).toList());
+        when(loanSummaryRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            invocation.<Iterable<LoanSummary>>getArgument(0).forEach(summary -> loanSummaries.put(summary.getMobileNumber(), summary));
+            return List.of();
+        });
+        when(loanSummaryRepository.findMobileNumbersByDeletedFalse()).thenAnswer(invocation -> loanSummaries.values().stream()
+                .filter(summary -> !summary.isDeleted()).map(LoanSummary::getMobileNumber).toList());
+        when(loanSummaryRepository.markDeleted(anyCollection())).thenAnswer(invocation -> {
+            invocation.<Collection<String>>getArgument(0).forEach(mobileNumber -> loanSummaries.get(mobileNumber).setDeleted(true));
+            return invocation.<Collection<String>>getArgument(0).size();
+        });
+        CardSummaryRepository cardSummaryRepository = mock(CardSummaryRepository.class);
+        EventOffsetRepository eventOffsetRepository = mock(EventOffsetRepository.class);
+        when(eventOffsetRepository.findById(anyString())).thenAnswer(invocation -> Optional.ofNullable(offsets.get(invocation.<String>getArgument(0))));
+        when(eventOffsetRepository.save(any())).thenAnswer(invocation -> {
+            EventOffset offset = invocation.getArgument(0);
+            offsets.put(offset.getTopic(), offset);
+            return offset;
+        });
+        doAnswer(invocation -> offsets.remove(invocation.<String>getArgument(0)))
+                .when(eventOffsetRepository).deleteById(anyString());
+        when(loanFeignClient.getLoanPage(any(), anyInt())).thenReturn(ResponseEntity.ok(new PageDto<>(List.of(), null)));
+        CardFeignClient cardFeignClient = mock(CardFeignClient.class);
+        when(cardFeignClient.getCardPage(any(), anyInt())).thenReturn(ResponseEntity.ok(new PageDto<CardDto>(List.of(), null)));
+
+        ReadModelProperties properties = new ReadModelProperties();
+        summaryReadModel = new SummaryReadModel(loanSummaryRepository, cardSummaryRepository, properties);
+        summaryProjector = new SummaryProjector(loanSummaryRepository, cardSummaryRepository, loanFeignClient, cardFeignClient,
+                eventBroker, eventOffsetRepository, summaryReadModel, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                objectMapper, properties);
+    }
+
+    @Test
+    void redeliveredEventsAreSkipped() {
+        publish(loanEvent(1, EventType.CREATED, 0), loanEvent(2, EventType.UPDATED, 500));
+        summaryProjector.sync();
+
+        publish(loanEvent(1, EventType.CREATED, 0), loanEvent(2, EventType.UPDATED, 700));
+        summaryProjector.sync();
+
+        LoanSummary summary = loanSummaries.get(MOBILE_NUMBER);
+        assertThat(summary.getSourceEventId()).isEqualTo(2);
+        assertThat(summary.getAmountPaid()).isEqualTo(500);
+    }
+
+    @Test
+    void deletionLeavesATombstoneOlderEventsCanNotRevive() {
+        publish(loanEvent(1, EventType.CREATED, 0), loanEvent(2, EventType.DELETED, 0));
+        summaryProjector.sync();
+
+        publish(loanEvent(1, EventType.CREATED, 0));
+        summaryProjector.sync();
+
+        LoanSummary summary = loanSummaries.get(MOBILE_NUMBER);
+        assertThat(summary.isDeleted()).isTrue();
+        assertThat(summary.getSourceEventId()).isEqualTo(2);
+    }
+
+    @Test
+    void watermarkOnlyAdvancesToTimesReadFromTheTopic() {
+        summaryProjector.sync();
+        assertThat(summaryReadModel.watermark(LOAN_EVENTS)).isNull();
+
+        Instant drainedAt = Instant.now().minusSeconds(3);
+        publish(new ChangeEvent(0, LOAN_EVENTS, null, EventType.HEARTBEAT, drainedAt, null));
+        summaryProjector.sync();
+
+        assertThat(summaryReadModel.watermark(LOAN_EVENTS)).isEqualTo(drainedAt);
+        assertThat(loanSummaries).isEmpty();
+    }
+
+    @Test
+    void sectionTurnsStaleOnceTheWatermarkLagsBehindTheMaxLag() {
+        LoanDto loanDto = loanDto(MOBILE_NUMBER, 0);
+        assertThat(summaryReadModel.section(LOAN_EVENTS, loanDto).getStatus()).isEqualTo(SectionStatus.STALE);
+
+        publish(new ChangeEvent(0, LOAN_EVENTS, null, EventType.HEARTBEAT, Instant.now().minusSeconds(31), null));
+        summaryProjector.sync();
+        assertThat(summaryReadModel.section(LOAN_EVENTS, loanDto).getStatus()).isEqualTo(SectionStatus.STALE);
+
+        publish(new ChangeEvent(0, LOAN_EVENTS, null, EventType.HEARTBEAT, Instant.now().minusSeconds(29), null));
+        summaryProjector.sync();
+        assertThat(summaryReadModel.section(LOAN_EVENTS, loanDto).getStatus()).isEqualTo(SectionStatus.AVAILABLE);
+    }
+
+    @Test
+    void offsetOutOfRangeLoadsTheSummariesAgain() {
+        offsets.put(LOAN_EVENTS, new EventOffset(LOAN_EVENTS, 42));
+
+        summaryProjector.sync();
+        assertThat(offsets).doesNotContainKey(LOAN_EVENTS);
+
+        summaryProjector.sync();
+        verify(loanFeignClient, times(1)).getLoanPage(any(), anyInt());
+        assertThat(offsets.get(LOAN_EVENTS).getNextOffset()).isZero();
+    }
+
+    @Test
+    void recreatedLogLoadsTheSummariesAgain() {
+        EventOffset offset = new EventOffset(LOAN_EVENTS, 0);
+        offset.setLogId("log of an earlier broker");
+        offsets.put(LOAN_EVENTS, offset);
+        publish(loanEvent(1, EventType.CREATED, 0));
+
+        summaryProjector.sync();
+
+        assertThat(offsets).doesNotContainKey(LOAN_EVENTS);
+        assertThat(loanSummaries).isEmpty();
+    }
+
+    @Test
+    void reloadMarksSummariesTheListingNoLongerReturnsDeleted() {
+        LoanSummary removed = new LoanSummary();
+        removed.setMobileNumber(MOBILE_NUMBER);
+        removed.setSourceEventId(7);
+        loanSummaries.put(MOBILE_NUMBER, removed);
+        offsets.put(LOAN_EVENTS, new EventOffset(LOAN_EVENTS, 42));
+        LoanDto listed = loanDto(OTHER_MOBILE_NUMBER, 0);
+        when(loanFeignClient.getLoanPage(any(), anyInt())).thenReturn(ResponseEntity.ok(new PageDto<>(List.of(listed), null)));
+
+        summaryProjector.sync();
+        summaryProjector.sync();
+
+        assertThat(loanSummaries.get(MOBILE_NUMBER).isDeleted()).isTrue();
+        assertThat(loanSummaries.get(OTHER_MOBILE_NUMBER).isDeleted()).isFalse();
+        assertThat(offsets.get(LOAN_EVENTS).getNextOffset()).isZero();
+    }
+
+    private void publish(ChangeEvent... events) {
+        eventBroker.publish(LOAN_EVENTS, List.of(events));
+    }
+
+    private ChangeEvent loanEvent(long eventId, EventType eventType, int amountPaid) {
+        return new ChangeEvent(eventId, LOAN_EVENTS, MOBILE_NUMBER, eventType, Instant.now(),
+                objectMapper.valueToTree(loanDto(MOBILE_NUMBER, amountPaid)));
+    }
+
+    private static LoanDto loanDto(String mobileNumber, int amountPaid) {
+        LoanDto loanDto = new LoanDto();
+        loanDto.setMobileNumber(mobileNumber);
+        loanDto.setLoanNumber("100646930341");
+        loanDto.setLoanType("Home Loan");
+        loanDto.setTotalLoan(100_000);
+        loanDto.setAmountPaid(amountPaid);
+        loanDto.setOutstandingAmount(100_000 - amountPaid);
+        return loanDto;
+    }
+}
@@ -0,0 +1,215 @@
+package com.charly.benchmarks;
+
+import com.charly.accounts.aggregation.AggregationProperties;
+import com.charly.accounts.aggregation.FanOutExecutor;
+import com.charly.accounts.audit.AuditAwareImpl;
+import com.charly.accounts.config.NumberGeneratorConfig;
+import com.charly.accounts.config.OutboxConfig;
+import com.charly.accounts.config.SchemaIndexVerifier;
+import com.charly.accounts.dto.BulkResponseDto;
+import com.charly.accounts.dto.CardDto;
+import com.charly.accounts.dto.CustomerDetailDto;
+import com.charly.accounts.dto.CustomerDto;
+import com.charly.accounts.dto.LoanDto;
+import com.charly.accounts.dto.PageDto;
+import com.charly.accounts.entity.Customer;
+import com.charly.accounts.generator.NumberGeneratorProperties;
+import com.charly.accounts.generator.SequenceBlockAllocator;
+import com.charly.accounts.outbox.OutboxProperties;
+import com.charly.accounts.outbox.OutboxRelay;
+import com.charly.accounts.outbox.OutboxWriter;
+import com.charly.accounts.readmodel.ReadModelProperties;
+import com.charly.accounts.readmodel.SummaryReadModel;
+import com.charly.accounts.repository.CustomerRepository;
+import com.charly.accounts.service.AccountService;
+import com.charly.accounts.service.CustomerService;
+import com.charly.accounts.service.client.CardFeignClient;
+import com.charly.accounts.service.client.DownstreamCache;
+import com.charly.accounts.service.client.DownstreamCacheProperties;
+import com.charly.accounts.service.client.LoanFeignClient;
+import com.charly.accounts.service.impl.AccountServiceImpl;
+import com.charly.accounts.service.impl.CustomerServiceImpl;
+import feign.Request;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static com.charly.benchmarks.EmbeddedServices.mobileNumber;
+
+/**
+ * Measures the accounts read and write paths. Loans and cards are replaced by in-process stubs, so the customer detail
+ * numbers cover the join query, the downstream cache and the fan-out but not the network. The local read model that
+ * replaces the fan-out by default is switched off.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountServiceBenchmark {
+
+    private static final int CUSTOMERS = 10_000;
+
+    private static final int BATCH_SIZE = 100;
+
+    private final AtomicInteger nextMobileNumber = new AtomicInteger(CUSTOMERS);
+
+    private ConfigurableApplicationContext context;
+
+    private AccountService accountService;
+
+    private CustomerService customerService;
+
+    private List<String> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = EmbeddedServices.start(AccountsContext.class, "accounts", "--read-model.enabled=false");
+        accountService = context.getBean(AccountService.class);
+        customerService = context.getBean(CustomerService.class);
+        accountService.createAccounts(IntStream.range(0, CUSTOMERS).mapToObj(AccountServiceBenchmark::customer).toList());
+        batch = IntStream.range(0, BATCH_SIZE).mapToObj(i -> mobileNumber(i * (CUSTOMERS / BATCH_SIZE))).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CustomerDto getAccount() {
+        return accountService.getAccount(randomMobileNumber());
+    }
+
+    @Benchmark
+    public CustomerDetailDto getCustomerDetail() {
+        return customerService.getCustomerDetail(randomMobileNumber());
+    }
+
+    @Benchmark
+    public List<CustomerDetailDto> getCustomerDetails() {
+        return customerService.getCustomerDetails(batch);
+    }
+
+    @Benchmark
+    public void createAccount() {
+        accountService.createAccount(customer(nextMobileNumber.getAndIncrement()));
+    }
+
+    @Benchmark
+    public BulkResponseDto createAccounts() {
+        int first = nextMobileNumber.getAndAdd(BATCH_SIZE);
+        return accountService.createAccounts(IntStream.range(first, first + BATCH_SIZE).mapToObj(AccountServiceBenchmark::customer).toList());
+    }
+
+    private static String randomMobileNumber() {
+        return mobileNumber(ThreadLocalRandom.current().nextInt(CUSTOMERS));
+    }
+
+    private static CustomerDto customer(int index) {
+        CustomerDto customer = new CustomerDto();
+        customer.setName("Customer " + index);
+        customer.setEmail("customer" + index + "@eazybytes.com");
+        customer.setMobileNumber(mobileNumber(index));
+        return customer;
+    }
+
+    private static LoanDto loan(String mobileNumber) {
+        LoanDto loan = new LoanDto();
+        loan.setMobileNumber(mobileNumber);
+        loan.setLoanNumber("2" + mobileNumber.substring(1) + "00");
+        loan.setLoanType("Home Loan");
+        loan.setTotalLoan(100_000);
+        loan.setOutstandingAmount(100_000);
+        return loan;
+    }
+
+    private static CardDto card(String mobileNumber) {
+        CardDto card = new CardDto();
+        card.setMobileNumber(mobileNumber);
+        card.setCardNumber("2" + mobileNumber.substring(1) + "0");
+        card.setCardType("Credit Card");
+        card.setTotalLimit(100_000);
+        card.setAvailableAmount(100_000);
+        return card;
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = Customer.class)
+    @EnableJpaRepositories(basePackageClasses = CustomerRepository.class)
+    @EnableJpaAuditing(auditorAwareRef = "auditAwareImpl")
+    @EnableConfigurationProperties({AggregationProperties.class, DownstreamCacheProperties.class, NumberGeneratorProperties.class, OutboxProperties.class,
+            ReadModelProperties.class})
+    @Import({AccountServiceImpl.class, CustomerServiceImpl.class, FanOutExecutor.class, DownstreamCache.class,
+            AuditAwareImpl.class, NumberGeneratorConfig.class, SequenceBlockAllocator.class, SchemaIndexVerifier.class,
+            OutboxConfig.class, OutboxWriter.class, OutboxRelay.class, SummaryReadModel.class})
+    static class AccountsContext {
+
+        @Bean
+        LoanFeignClient loanFeignClient() {
+            return new LoanFeignClient() {
+                @Override
+                public ResponseEntity<LoanDto> getLoan(String mobileNumber, Request.Options options) {
+                    return ResponseEntity.ok(loan(mobileNumber));
+                }
+
+                @Override
+                public ResponseEntity<List<LoanDto>> getLoans(List<String> mobileNumbers, Request.Options options) {
+                    return ResponseEntity.ok(mobileNumbers.stream().map(AccountServiceBenchmark::loan).toList());
+                }
+
+                @Override
+                public ResponseEntity<PageDto<LoanDto>> getLoanPage(String pageToken, int size) {
+                    return ResponseEntity.ok(new PageDto<>(List.of(), null));
+                }
+            };
+        }
+
+        @Bean
+        CardFeignClient cardFeignClient() {
+            return new CardFeignClient() {
+                @Override
+                public ResponseEntity<CardDto> getCard(String mobileNumber, Request.Options options) {
+                    return ResponseEntity.ok(card(mobileNumber));
+                }
+
+                @Override
+                public ResponseEntity<List<CardDto>> getCards(List<String> mobileNumbers, Request.Options options) {
+                    return ResponseEntity.ok(mobileNumbers.stream().map(AccountServiceBenchmark::card).toList());
+                }
+
+                @Override
+                public ResponseEntity<PageDto<CardDto>> getCardPage(String pageToken, int size) {
+                    return ResponseEntity.ok(new PageDto<>(List.of(), null));
+                }
+            };
+        }
+    }
+}
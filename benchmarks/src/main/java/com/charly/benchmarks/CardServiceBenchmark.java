@@ -0,0 +1,119 @@
+package com.charly.benchmarks;
+
+import com.charly.cards.audit.AuditAwareImpl;
+import com.charly.cards.config.NumberGeneratorConfig;
+import com.charly.cards.config.OutboxConfig;
+import com.charly.cards.config.SchemaIndexVerifier;
+import com.charly.cards.dto.CardDto;
+import com.charly.cards.entity.Card;
+import com.charly.cards.generator.NumberGeneratorProperties;
+import com.charly.cards.generator.SequenceBlockAllocator;
+import com.charly.cards.outbox.OutboxProperties;
+import com.charly.cards.outbox.OutboxRelay;
+import com.charly.cards.outbox.OutboxWriter;
+import com.charly.cards.repository.CardRepository;
+import com.charly.cards.service.CardService;
+import com.charly.cards.service.impl.CardServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static com.charly.benchmarks.EmbeddedServices.mobileNumber;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CardServiceBenchmark {
+
+    private static final int CARDS = 10_000;
+
+    private static final int BATCH_SIZE = 100;
+
+    // few enough that concurrent charges keep hitting the same rows
+    private static final int HOT_CARDS = 8;
+
+    private final AtomicInteger nextMobileNumber = new AtomicInteger(CARDS);
+
+    private ConfigurableApplicationContext context;
+
+    private CardService cardService;
+
+    private List<String> batch;
+
+    private List<String> hotCardNumbers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = EmbeddedServices.start(CardsContext.class, "cards");
+        cardService = context.getBean(CardService.class);
+        for (int i = 0; i < CARDS; i++) {
+            cardService.createCard(mobileNumber(i));
+        }
+        batch = IntStream.range(0, BATCH_SIZE).mapToObj(i -> mobileNumber(i * (CARDS / BATCH_SIZE))).toList();
+        hotCardNumbers = IntStream.range(0, HOT_CARDS).mapToObj(i -> cardService.getCard(mobileNumber(i)).getCardNumber()).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CardDto getCard() {
+        return cardService.getCard(mobileNumber(ThreadLocalRandom.current().nextInt(CARDS)));
+    }
+
+    @Benchmark
+    public List<CardDto> getCards() {
+        return cardService.getCards(batch);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public CardDto chargeCard() {
+        return cardService.chargeCard(hotCardNumbers.get(ThreadLocalRandom.current().nextInt(HOT_CARDS)), 1);
+    }
+
+    @Benchmark
+    public void createCard() {
+        cardService.createCard(mobileNumber(nextMobileNumber.getAndIncrement()));
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = Card.class)
+    @EnableJpaRepositories(basePackageClasses = CardRepository.class)
+    @EnableJpaAuditing(auditorAwareRef = "auditAwareImpl")
+    @EnableConfigurationProperties({NumberGeneratorProperties.class, OutboxProperties.class})
+    @Import({CardServiceImpl.class, AuditAwareImpl.class, NumberGeneratorConfig.class, SequenceBlockAllocator.class,
+            SchemaIndexVerifier.class, OutboxConfig.class, OutboxWriter.class, OutboxRelay.class})
+    static class CardsContext {
+    }
+}
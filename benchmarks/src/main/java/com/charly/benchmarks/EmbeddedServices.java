@@ -0,0 +1,45 @@
+package com.charly.benchmarks;
+
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Starts the persistence and service layer of one microservice against an in-memory H2 database in MySQL mode,
+ * migrated with the same Flyway scripts as production. Config server and Eureka are switched off, change events stay in
+ * memory.
+ */
+final class EmbeddedServices {
+
+    private EmbeddedServices() {
+        // restrict instantiation
+    }
+
+    static ConfigurableApplicationContext start(Class<?> configuration, String service, String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of("--spring.application.name=" + service,
+                        "--spring.datasource.url=jdbc:h2:mem:" + service + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.flyway.locations=classpath:db/migration/" + service,
+                        "--spring.jpa.hibernate.ddl-auto=none",
+                        "--spring.jpa.open-in-view=false",
+                        "--spring.cloud.config.enabled=false",
+                        "--spring.cloud.config.import-check.enabled=false",
+                        "--eureka.client.enabled=false",
+                        "--outbox.broker=memory",
+                        "--logging.level.root=WARN"));
+        Collections.addAll(args, extraArgs);
+        return new SpringApplicationBuilder(configuration)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .run(args.toArray(String[]::new));
+    }
+
+    static String mobileNumber(int index) {
+        return String.format("9%09d", index);
+    }
+}
@@ -0,0 +1,100 @@
+package com.charly.benchmarks;
+
+import com.charly.accounts.dto.AccountDto;
+import com.charly.accounts.dto.CardDto;
+import com.charly.accounts.dto.CustomerDetailDto;
+import com.charly.accounts.dto.LoanDto;
+import com.charly.accounts.dto.SectionStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    // configured like the ObjectMapper Spring MVC uses for the REST responses
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private CustomerDetailDto customerDetail;
+
+    private List<CustomerDetailDto> customerDetails;
+
+    private byte[] customerDetailJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        customerDetail = customerDetail(EmbeddedServices.mobileNumber(0));
+        customerDetails = IntStream.range(0, BATCH_SIZE).mapToObj(i -> customerDetail(EmbeddedServices.mobileNumber(i))).toList();
+        customerDetailJson = objectMapper.writeValueAsBytes(customerDetail);
+    }
+
+    @Benchmark
+    public byte[] serializeCustomerDetail() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(customerDetail);
+    }
+
+    @Benchmark
+    public byte[] serializeCustomerDetailBatch() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(customerDetails);
+    }
+
+    @Benchmark
+    public CustomerDetailDto deserializeCustomerDetail() throws Exception {
+        return objectMapper.readValue(customerDetailJson, CustomerDetailDto.class);
+    }
+
+    private static CustomerDetailDto customerDetail(String mobileNumber) {
+        AccountDto account = new AccountDto();
+        account.setAccountNumber(2000000001L);
+        account.setAccountType("Savings");
+        account.setBranchAddress("123 Main Street, New York");
+
+        LoanDto loan = new LoanDto();
+        loan.setMobileNumber(mobileNumber);
+        loan.setLoanNumber("200000000001");
+        loan.setLoanType("Home Loan");
+        loan.setTotalLoan(100_000);
+        loan.setAmountPaid(1_000);
+        loan.setOutstandingAmount(99_000);
+
+        CardDto card = new CardDto();
+        card.setMobileNumber(mobileNumber);
+        card.setCardNumber("200000000018");
+        card.setCardType("Credit Card");
+        card.setTotalLimit(100_000);
+        card.setAmountUsed(1_000);
+        card.setAvailableAmount(99_000);
+
+        CustomerDetailDto customerDetail = new CustomerDetailDto();
+        customerDetail.setName("Eazy Bytes");
+        customerDetail.setEmail("tutor@eazybytes.com");
+        customerDetail.setMobileNumber(mobileNumber);
+        customerDetail.setAccountDto(account);
+        customerDetail.setLoanDto(loan);
+        customerDetail.setLoanStatus(SectionStatus.AVAILABLE);
+        customerDetail.setCardDto(card);
+        customerDetail.setCardStatus(SectionStatus.AVAILABLE);
+        return customerDetail;
+    }
+}
@@ -0,0 +1,119 @@
+package com.charly.benchmarks;
+
+import com.charly.loans.audit.AuditAwareImpl;
+import com.charly.loans.config.NumberGeneratorConfig;
+import com.charly.loans.config.OutboxConfig;
+import com.charly.loans.config.SchemaIndexVerifier;
+import com.charly.loans.dto.LoanDto;
+import com.charly.loans.entity.Loan;
+import com.charly.loans.generator.NumberGeneratorProperties;
+import com.charly.loans.generator.SequenceBlockAllocator;
+import com.charly.loans.outbox.OutboxProperties;
+import com.charly.loans.outbox.OutboxRelay;
+import com.charly.loans.outbox.OutboxWriter;
+import com.charly.loans.repository.LoanRepository;
+import com.charly.loans.service.LoanService;
+import com.charly.loans.service.impl.LoanServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static com.charly.benchmarks.EmbeddedServices.mobileNumber;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoanServiceBenchmark {
+
+    private static final int LOANS = 10_000;
+
+    private static final int BATCH_SIZE = 100;
+
+    // few enough that concurrent payments keep hitting the same rows
+    private static final int HOT_LOANS = 8;
+
+    private final AtomicInteger nextMobileNumber = new AtomicInteger(LOANS);
+
+    private ConfigurableApplicationContext context;
+
+    private LoanService loanService;
+
+    private List<String> batch;
+
+    private List<String> hotLoanNumbers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = EmbeddedServices.start(LoansContext.class, "loans");
+        loanService = context.getBean(LoanService.class);
+        for (int i = 0; i < LOANS; i++) {
+            loanService.createLoan(mobileNumber(i));
+        }
+        batch = IntStream.range(0, BATCH_SIZE).mapToObj(i -> mobileNumber(i * (LOANS / BATCH_SIZE))).toList();
+        hotLoanNumbers = IntStream.range(0, HOT_LOANS).mapToObj(i -> loanService.getLoan(mobileNumber(i)).getLoanNumber()).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public LoanDto getLoan() {
+        return loanService.getLoan(mobileNumber(ThreadLocalRandom.current().nextInt(LOANS)));
+    }
+
+    @Benchmark
+    public List<LoanDto> getLoans() {
+        return loanService.getLoans(batch);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public LoanDto repayLoan() {
+        return loanService.repayLoan(hotLoanNumbers.get(ThreadLocalRandom.current().nextInt(HOT_LOANS)), 1);
+    }
+
+    @Benchmark
+    public void createLoan() {
+        loanService.createLoan(mobileNumber(nextMobileNumber.getAndIncrement()));
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = Loan.class)
+    @EnableJpaRepositories(basePackageClasses = LoanRepository.class)
+    @EnableJpaAuditing(auditorAwareRef = "auditAwareImpl")
+    @EnableConfigurationProperties({NumberGeneratorProperties.class, OutboxProperties.class})
+    @Import({LoanServiceImpl.class, AuditAwareImpl.class, NumberGeneratorConfig.class, SequenceBlockAllocator.class,
+            SchemaIndexVerifier.class, OutboxConfig.class, OutboxWriter.class, OutboxRelay.class})
+    static class LoansContext {
+    }
+}
@@ -0,0 +1,124 @@
+package com.charly.benchmarks;
+
+import com.charly.accounts.dto.AccountDto;
+import com.charly.accounts.dto.CustomerDetailDto;
+import com.charly.accounts.dto.CustomerDto;
+import com.charly.accounts.entity.Account;
+import com.charly.accounts.entity.Customer;
+import com.charly.accounts.mapper.AccountMapper;
+import com.charly.accounts.mapper.CustomerMapper;
+import com.charly.cards.dto.CardDto;
+import com.charly.cards.entity.Card;
+import com.charly.cards.mapper.CardMapper;
+import com.charly.loans.dto.LoanDto;
+import com.charly.loans.entity.Loan;
+import com.charly.loans.mapper.LoanMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private Account account;
+
+    private Customer customer;
+
+    private CustomerDto customerDto;
+
+    private Card card;
+
+    private CardDto cardDto;
+
+    private Loan loan;
+
+    private LoanDto loanDto;
+
+    @Setup
+    public void setUp() {
+        account = new Account();
+        account.setCustomerId(1L);
+        account.setAccountNumber(2000000001L);
+        account.setAccountType("Savings");
+        account.setBranchAddress("123 Main Street, New York");
+
+        customer = new Customer();
+        customer.setCustomerId(1L);
+        customer.setName("Eazy Bytes");
+        customer.setEmail("tutor@eazybytes.com");
+        customer.setMobileNumber("9345432123");
+        customerDto = CustomerMapper.mapToCustomerDto(customer, new CustomerDto());
+
+        card = new Card();
+        card.setCardNumber("200000000018");
+        card.setCardType("Credit Card");
+        card.setMobileNumber("9345432123");
+        card.setTotalLimit(100_000);
+        card.setAmountUsed(1_000);
+        card.setAvailableAmount(99_000);
+        cardDto = CardMapper.mapToCardsDto(card, new CardDto());
+
+        loan = new Loan();
+        loan.setLoanNumber("200000000001");
+        loan.setLoanType("Home Loan");
+        loan.setMobileNumber("9345432123");
+        loan.setTotalLoan(100_000);
+        loan.setAmountPaid(1_000);
+        loan.setOutstandingAmount(99_000);
+        loanDto = LoanMapper.mapToLoansDto(loan, new LoanDto());
+    }
+
+    @Benchmark
+    public AccountDto accountToDto() {
+        return AccountMapper.mapToAccountsDto(account, new AccountDto());
+    }
+
+    @Benchmark
+    public CustomerDto customerToDto() {
+        return CustomerMapper.mapToCustomerDto(customer, new CustomerDto());
+    }
+
+    @Benchmark
+    public Customer customerFromDto() {
+        return CustomerMapper.mapToCustomer(customerDto, new Customer());
+    }
+
+    @Benchmark
+    public CustomerDetailDto customerToDetailDto() {
+        return CustomerMapper.mapToCustomerDetailDto(customer, new CustomerDetailDto());
+    }
+
+    @Benchmark
+    public CardDto cardToDto() {
+        return CardMapper.mapToCardsDto(card, new CardDto());
+    }
+
+    @Benchmark
+    public Card cardFromDto() {
+        return CardMapper.mapToCards(cardDto, new Card());
+    }
+
+    @Benchmark
+    public LoanDto loanToDto() {
+        return LoanMapper.mapToLoansDto(loan, new LoanDto());
+    }
+
+    @Benchmark
+    public Loan loanFromDto() {
+        return LoanMapper.mapToLoans(loanDto, new Loan());
+    }
+}
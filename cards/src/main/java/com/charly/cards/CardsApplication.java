@@ -1,6 +1,10 @@
 package com.charly.cards;
 
 import com.charly.cards.dto.CardContactInfoDto;
+import com.charly.cards.generator.NumberGeneratorProperties;
+import com.charly.cards.idempotency.IdempotencyProperties;
+import com.charly.cards.outbox.OutboxProperties;
+import com.charly.cards.sql.SqlObservabilityProperties;
 import io.swagger.v3.oas.annotations.ExternalDocumentation;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.info.Contact;
@@ -13,7 +17,7 @@ import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 
 @SpringBootApplication
 @EnableJpaAuditing(auditorAwareRef = "auditAwareImpl")
-@EnableConfigurationProperties(value = {CardContactInfoDto.class})
+@EnableConfigurationProperties(value = {CardContactInfoDto.class, NumberGeneratorProperties.class, IdempotencyProperties.class, OutboxProperties.class, SqlObservabilityProperties.class})
 @OpenAPIDefinition(info = @Info(title = "Cards microservice REST API Documentation", description = "EazyBank Cards microservice REST API Documentation", version = "v1", contact = @Contact(name = "Madan Reddy", email = "tutor@eazybytes.com", url = "https://www.eazybytes.com"), license = @License(name = "Apache 2.0", url = "https://www.eazybytes.com")), externalDocs = @ExternalDocumentation(description = "EazyBank Cards microservice REST API Documentation", url = "https://www.eazybytes.com/swagger-ui.html"))
 public class CardsApplication {
 
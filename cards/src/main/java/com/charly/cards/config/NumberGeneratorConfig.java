@@ -0,0 +1,23 @@
+package com.charly.cards.config;
+
+import com.charly.cards.generator.BlockSequenceNumberGenerator;
+import com.charly.cards.generator.LuhnNumberGenerator;
+import com.charly.cards.generator.NumberGenerator;
+import com.charly.cards.generator.NumberGeneratorProperties;
+import com.charly.cards.generator.SequenceBlockAllocator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class NumberGeneratorConfig {
+
+    /**
+     * Card numbers are the 11 digit sequence value followed by a Luhn check digit.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public NumberGenerator cardNumberGenerator(SequenceBlockAllocator allocator, NumberGeneratorProperties properties) {
+        return new LuhnNumberGenerator(new BlockSequenceNumberGenerator("card_number", properties.getBlockSize(), allocator));
+    }
+}
@@ -0,0 +1,74 @@
+package com.charly.cards.config;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fails the startup when a lookup column used by the repositories is not the leading column of an index,
+ * so a missing migration shows up at deploy time instead of as full table scans under load.
+ */
+@Component
+@DependsOnDatabaseInitialization
+@ConditionalOnProperty(name = "schema.verify-indexes", havingValue = "true", matchIfMissing = true)
+public class SchemaIndexVerifier implements InitializingBean {
+
+    private static final Map<String, List<String>> EXPECTED_INDEXES = Map.of(
+            "cards", List.of("mobile_number", "card_number")
+    );
+
+    private final DataSource dataSource;
+
+    public SchemaIndexVerifier(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws SQLException {
+        List<String> missing = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (Map.Entry<String, List<String>> expected : EXPECTED_INDEXES.entrySet()) {
+                Set<String> indexedColumns = leadingIndexColumns(metaData, connection, expected.getKey());
+                expected.getValue().stream()
+                        .filter(column -> !indexedColumns.contains(column))
+                        .forEach(column -> missing.add(expected.getKey() + "." + column));
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Missing indexes on " + missing + ". Run the pending schema migrations before starting the service");
+        }
+    }
+
+    private static Set<String> leadingIndexColumns(DatabaseMetaData metaData, Connection connection, String table) throws SQLException {
+        Set<String> columns = readLeadingIndexColumns(metaData, connection, table);
+        // some databases report unquoted identifiers in upper case
+        return columns.isEmpty() ? readLeadingIndexColumns(metaData, connection, table.toUpperCase(Locale.ROOT)) : columns;
+    }
+
+    private static Set<String> readLeadingIndexColumns(DatabaseMetaData metaData, Connection connection, String table) throws SQLException {
+        Set<String> columns = new HashSet<>();
+        try (ResultSet indexInfo = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), table, false, true)) {
+            while (indexInfo.next()) {
+                String column = indexInfo.getString("COLUMN_NAME");
+                if (indexInfo.getShort("ORDINAL_POSITION") == 1 && column != null) {
+                    columns.add(column.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return columns;
+    }
+}
@@ -4,6 +4,10 @@ public class CardConstant {
 
     public static final String CREDIT_CARD = "Credit Card";
     public static final int NEW_CARD_LIMIT = 1_00_000;
+    public static final int MAX_BATCH_SIZE = 1000;
+    public static final String CARD_EVENTS = "cards";
+    public static final String DEFAULT_PAGE_SIZE = "100";
+    public static final int MAX_PAGE_SIZE = 1000;
     public static final String STATUS_201 = "201";
     public static final String MESSAGE_201 = "Card created successfully";
     public static final String STATUS_200 = "200";
@@ -1,10 +1,14 @@
 package com.charly.cards.controller;
 
 import com.charly.cards.constant.CardConstant;
+import com.charly.cards.dto.ChargeDto;
 import com.charly.cards.dto.CardContactInfoDto;
 import com.charly.cards.dto.CardDto;
 import com.charly.cards.dto.ErrorResponseDto;
+import com.charly.cards.dto.PageDto;
 import com.charly.cards.dto.ResponseDto;
+import com.charly.cards.etag.Versioned;
+import com.charly.cards.idempotency.IdempotentRequests;
 import com.charly.cards.service.CardService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,8 +16,13 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
@@ -22,6 +31,12 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.util.List;
+
+import static com.charly.cards.idempotency.IdempotentRequests.IDEMPOTENCY_KEY_HEADER;
 
 @Tag(name = "CRUD REST APIs for Cards in EazyBank", description = "CRUD REST APIs in EazyBank to CREATE, UPDATE, FETCH AND DELETE card details")
 @RestController
@@ -31,6 +46,8 @@ public class CardController {
 
     private CardService cardService;
 
+    private IdempotentRequests idempotentRequests;
+
     @Value("${build.version}")
     private String buildVersion;
 
@@ -40,26 +57,66 @@ public class CardController {
     @Autowired
     private CardContactInfoDto cardContactInfoDto;
 
-    public CardController(CardService cardService) {
+    public CardController(CardService cardService, IdempotentRequests idempotentRequests) {
         this.cardService = cardService;
+        this.idempotentRequests = idempotentRequests;
     }
 
     @Operation(summary = "Create Card REST API", description = "REST API to create new Card inside EazyBank")
-    @ApiResponses({@ApiResponse(responseCode = "201", description = "HTTP Status CREATED"), @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))})
+    @ApiResponses({@ApiResponse(responseCode = "201", description = "HTTP Status CREATED"), @ApiResponse(responseCode = "409", description = "HTTP Status Conflict", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))), @ApiResponse(responseCode = "422", description = "HTTP Status Unprocessable Entity", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))), @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))})
     @PostMapping()
-    public ResponseEntity<ResponseDto> createCard(@Valid @RequestParam @Pattern(regexp = "(^$|[0-9]{10,13})", message = "Mobile number must be 10 to 13 digits") String mobileNumber) {
-        cardService.createCard(mobileNumber);
-        return ResponseEntity.status(HttpStatus.CREATED).body(new ResponseDto(CardConstant.STATUS_201, CardConstant.MESSAGE_201));
+    public ResponseEntity<ResponseDto> createCard(@Valid @RequestParam @Pattern(regexp = "(^$|[0-9]{10,13})", message = "Mobile number must be 10 to 13 digits") String mobileNumber, @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) @Size(max = 255, message = "Idempotency key can be at most 255 characters") String idempotencyKey) {
+        return idempotentRequests.execute("createCard", idempotencyKey, mobileNumber, () -> {
+            cardService.createCard(mobileNumber);
+            return ResponseEntity.status(HttpStatus.CREATED).body(new ResponseDto(CardConstant.STATUS_201, CardConstant.MESSAGE_201));
+        });
     }
 
     @Operation(summary = "Fetch Card Details REST API", description = "REST API to fetch card details based on a mobile number")
-    @ApiResponses({@ApiResponse(responseCode = "200", description = "HTTP Status OK"), @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))})
+    @ApiResponses({@ApiResponse(responseCode = "200", description = "HTTP Status OK"), @ApiResponse(responseCode = "304", description = "HTTP Status Not Modified"), @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))})
     @GetMapping("/{mobileNumber}")
-    public ResponseEntity<CardDto> getCard(@PathVariable("mobileNumber") @Pattern(regexp = "(^$|[0-9]{10,13})", message = "Mobile number must be 10 to 13 digits") String mobileNumber) {
-        CardDto cardsDto = cardService.getCard(mobileNumber);
+    public ResponseEntity<CardDto> getCard(@PathVariable("mobileNumber") @Pattern(regexp = "(^$|[0-9]{10,13})", message = "Mobile number must be 10 to 13 digits") String mobileNumber, WebRequest webRequest) {
+        Versioned<CardDto> card = cardService.getVersionedCard(mobileNumber);
+        if (webRequest.checkNotModified(card.eTag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return ResponseEntity.status(HttpStatus.OK).body(card.body().get());
+    }
+
+    @Operation(summary = "Fetch Card Details in batch REST API", description = "REST API to fetch card details of many mobile numbers in one call")
+    @ApiResponses({@ApiResponse(responseCode = "200", description = "HTTP Status OK"), @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))})
+    @PostMapping("/batch")
+    public ResponseEntity<List<CardDto>> getCardsBatch(@RequestBody @NotEmpty(message = "Mobile numbers can not be empty") @Size(max = CardConstant.MAX_BATCH_SIZE, message = "At most 1000 mobile numbers can be fetched at once") List<@Pattern(regexp = "(^$|[0-9]{10,13})", message = "Mobile number must be 10 to 13 digits") String> mobileNumbers) {
+        List<CardDto> cardsDto = cardService.getCards(mobileNumbers);
         return ResponseEntity.status(HttpStatus.OK).body(cardsDto);
     }
 
+    @Operation(summary = "List Cards REST API", description = "REST API to page through cards in card id order. Pass the nextPageToken of a page as pageToken to fetch the next one")
+    @ApiResponses({@ApiResponse(responseCode = "200", description = "HTTP Status OK"), @ApiResponse(responseCode = "400", description = "HTTP Status Bad Request", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))), @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))})
+    @GetMapping()
+    public ResponseEntity<PageDto<CardDto>> getCards(@RequestParam(name = "pageToken", required = false) String pageToken, @RequestParam(name = "size", defaultValue = CardConstant.DEFAULT_PAGE_SIZE) @Min(value = 1, message = "Page size must be at least 1") @Max(value = CardConstant.MAX_PAGE_SIZE, message = "At most 1000 cards can be fetched per page") int size) {
+        PageDto<CardDto> page = cardService.getCards(pageToken, size);
+        return ResponseEntity.status(HttpStatus.OK).body(page);
+    }
+
+    @Operation(summary = "Export Cards REST API", description = "REST API to stream every card as newline-delimited JSON, one card per line")
+    @ApiResponses({@ApiResponse(responseCode = "200", description = "HTTP Status OK"), @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))})
+    @GetMapping(path = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE})
+    public void exportCards(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        cardService.exportCards(response.getOutputStream());
+    }
+
+    @Operation(summary = "Charge Card REST API", description = "REST API to charge an amount to a card based on a card number. Concurrent charges of the same card are applied atomically and never lost")
+    @ApiResponses({@ApiResponse(responseCode = "200", description = "HTTP Status OK"), @ApiResponse(responseCode = "400", description = "HTTP Status Bad Request", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))), @ApiResponse(responseCode = "404", description = "HTTP Status Not Found", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))), @ApiResponse(responseCode = "409", description = "HTTP Status Conflict", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))), @ApiResponse(responseCode = "422", description = "HTTP Status Unprocessable Entity", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))), @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))})
+    @PostMapping("/{cardNumber}/charges")
+    public ResponseEntity<CardDto> chargeCard(@PathVariable("cardNumber") @Pattern(regexp = "(^$|[0-9]{12})", message = "CardNumber must be 12 digits") String cardNumber, @Valid @RequestBody ChargeDto chargeDto, @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) @Size(max = 255, message = "Idempotency key can be at most 255 characters") String idempotencyKey) {
+        return idempotentRequests.execute("chargeCard", idempotencyKey, List.of(cardNumber, chargeDto), () -> {
+            CardDto cardDto = cardService.chargeCard(cardNumber, chargeDto.getAmount());
+            return ResponseEntity.status(HttpStatus.OK).body(cardDto);
+        });
+    }
+
     @Operation(summary = "Update Card Details REST API", description = "REST API to update card details based on a card number")
     @ApiResponses({@ApiResponse(responseCode = "200", description = "HTTP Status OK"), @ApiResponse(responseCode = "417", description = "Expectation Failed"), @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))})
     @PutMapping()
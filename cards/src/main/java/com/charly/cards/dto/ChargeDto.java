@@ -0,0 +1,14 @@
+package com.charly.cards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+@Schema(name = "Charge", description = "Schema to hold a charge against a card")
+@Data
+public class ChargeDto {
+
+    @Positive(message = "Charged amount should be greater than zero")
+    @Schema(description = "Amount to charge, taken from the available amount of the card", example = "250")
+    private int amount;
+}
@@ -0,0 +1,12 @@
+package com.charly.cards.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class CardLimitExceededException extends RuntimeException {
+
+    public CardLimitExceededException(String cardNumber, int amount) {
+        super(String.format("Charge of %d exceeds the available amount of card '%s'", amount, cardNumber));
+    }
+}
@@ -0,0 +1,40 @@
+package com.charly.cards.generator;
+
+/**
+ * Appends a Luhn check digit to every number of the delegate, so a mistyped digit is caught before any lookup.
+ */
+public class LuhnNumberGenerator implements NumberGenerator {
+
+    private final NumberGenerator delegate;
+
+    public LuhnNumberGenerator(NumberGenerator delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public long next() {
+        long payload = delegate.next();
+        return payload * 10 + checkDigit(payload);
+    }
+
+    /**
+     * @param payload - number without its check digit
+     * @return digit that makes {@code payload * 10 + digit} pass the Luhn check
+     */
+    public static int checkDigit(long payload) {
+        int sum = 0;
+        boolean doubled = true;
+        for (long rest = payload; rest > 0; rest /= 10) {
+            int digit = (int) (rest % 10);
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
+}
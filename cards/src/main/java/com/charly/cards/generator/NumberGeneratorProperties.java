@@ -0,0 +1,16 @@
+package com.charly.cards.generator;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "number-generator")
+public class NumberGeneratorProperties {
+
+    /**
+     * Numbers reserved per database round-trip. Numbers of a block left unused on shutdown are skipped.
+     */
+    private int blockSize = 100;
+}
@@ -0,0 +1,29 @@
+package com.charly.cards.idempotency;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * Time the response of a completed request is replayed for. Retries arriving later run again.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * Time a key stays claimed by a request that has not completed yet. Bounds how long retries are rejected when the
+     * first request never completes.
+     */
+    private Duration inProgressTtl = Duration.ofSeconds(30);
+
+    /**
+     * Keys kept by the local store before the least valuable ones are evicted.
+     */
+    private long maximumSize = 100_000;
+}
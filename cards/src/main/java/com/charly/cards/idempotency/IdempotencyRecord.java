@@ -0,0 +1,19 @@
+package com.charly.cards.idempotency;
+
+/**
+ * What is stored under an idempotency key: a fingerprint of the request and, once it completed, its response.
+ *
+ * @param fingerprint - SHA-256 of the request parameters, a retry has to match it
+ * @param status      - HTTP status of the response, 0 while the request is still running
+ * @param body        - body of the response, null while the request is still running
+ */
+public record IdempotencyRecord(String fingerprint, int status, Object body) {
+
+    public static IdempotencyRecord inProgress(String fingerprint) {
+        return new IdempotencyRecord(fingerprint, 0, null);
+    }
+
+    public boolean isInProgress() {
+        return status == 0;
+    }
+}
@@ -0,0 +1,12 @@
+package com.charly.cards.outbox;
+
+/**
+ * Thrown by {@link EventBroker#poll} for an offset that does not point into the log of the topic as it is now.
+ * Consumers cannot tell which events they missed and have to rebuild their state from the owning service.
+ */
+public class OffsetOutOfRangeException extends RuntimeException {
+
+    public OffsetOutOfRangeException(String topic, long offset) {
+        super("Offset %s is out of range for topic %s".formatted(offset, topic));
+    }
+}
@@ -0,0 +1,157 @@
+package com.charly.cards.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Moves committed events from the {@code outbox_events} table to the {@link EventBroker}: claims them oldest first in
+ * batches, publishes a batch and only then deletes it. Delivery is at least once. A crash between publishing and
+ * deleting publishes events again, so consumers apply them idempotently, e.g. by ignoring events not newer than the
+ * state they hold.
+ * <p>
+ * Every replica runs a relay. A batch is claimed with {@code FOR UPDATE SKIP LOCKED} in the transaction that deletes
+ * it, so replicas relay disjoint batches instead of publishing every event once each. Batches of two replicas may
+ * still reach the broker in either order, the same idempotent apply sorts that out. The transaction reads committed
+ * rows only, so the claim takes no gap locks that would hold up the inserts of the outbox meanwhile.
+ * <p>
+ * Once a run has drained the outbox, and no batch claimed by another replica is left in it, it publishes a
+ * {@link EventType#HEARTBEAT} to the heartbeat topic, at most once per heartbeat interval, stamped with the time the
+ * last read started: every change committed before it has been published by then.
+ */
+@Component
+public class OutboxRelay implements InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final String PUBLISHED_COUNTER = "outbox.events.published";
+
+    private static final String CLAIM_EVENTS = "SELECT event_id, aggregate_type, aggregate_id, event_type, payload, occurred_at FROM outbox_events ORDER BY event_id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String SELECT_ANY_EVENT = "SELECT event_id FROM outbox_events LIMIT 1";
+
+    private static final String DELETE_EVENTS = "DELETE FROM outbox_events WHERE event_id IN (%s)";
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("outbox-relay-"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final EventBroker eventBroker;
+
+    private final ObjectMapper objectMapper;
+
+    private final OutboxProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private Instant heartbeatAt = Instant.MIN;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, EventBroker eventBroker,
+                       ObjectMapper objectMapper, OutboxProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.eventBroker = eventBroker;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        long interval = properties.getRelayInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::relay, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private void relay() {
+        try {
+            Instant drainedAt;
+            do {
+                // a full batch means a backlog, keep draining it without waiting for the next run
+                drainedAt = Instant.now();
+            } while (relayBatch() == properties.getBatchSize());
+            // rows skipped as claimed by another replica may not be published yet
+            if (jdbcTemplate.queryForList(SELECT_ANY_EVENT, Long.class).isEmpty()) {
+                heartbeat(drainedAt);
+            }
+        } catch (RuntimeException ex) {
+            // the scheduler drops a task that throws, the events stay in the outbox for the next run
+            log.warn("Relaying outbox events failed, retrying in {}: {}", properties.getRelayInterval(), ex.getMessage());
+        }
+    }
+
+    /**
+     * @return number of events relayed
+     */
+    int relayBatch() {
+        Integer relayed = transactionTemplate.execute(status -> relayClaimedBatch());
+        return relayed != null ? relayed : 0;
+    }
+
+    private int relayClaimedBatch() {
+        List<ChangeEvent> events = jdbcTemplate.query(CLAIM_EVENTS, this::mapToChangeEvent, properties.getBatchSize());
+        if (events.isEmpty()) {
+            return 0;
+        }
+        Map<String, List<ChangeEvent>> eventsByTopic = events.stream()
+                .collect(Collectors.groupingBy(ChangeEvent::aggregateType, LinkedHashMap::new, Collectors.toList()));
+        eventsByTopic.forEach((topic, topicEvents) -> {
+            eventBroker.publish(topic, topicEvents);
+            meterRegistry.counter(PUBLISHED_COUNTER, "topic", topic).increment(topicEvents.size());
+        });
+        String placeholders = String.join(", ", Collections.nCopies(events.size(), "?"));
+        jdbcTemplate.update(DELETE_EVENTS.formatted(placeholders), events.stream().map(ChangeEvent::eventId).toArray());
+        return events.size();
+    }
+
+    private void heartbeat(Instant drainedAt) {
+        String topic = properties.getHeartbeatTopic();
+        if (topic == null || drainedAt.isBefore(heartbeatAt.plus(properties.getHeartbeatInterval()))) {
+            return;
+        }
+        eventBroker.publish(topic, List.of(new ChangeEvent(0, topic, null, EventType.HEARTBEAT, drainedAt, null)));
+        heartbeatAt = drainedAt;
+    }
+
+    private ChangeEvent mapToChangeEvent(ResultSet resultSet, int rowNum) throws SQLException {
+        try {
+            return new ChangeEvent(resultSet.getLong("event_id"), resultSet.getString("aggregate_type"),
+                    resultSet.getString("aggregate_id"), EventType.valueOf(resultSet.getString("event_type")),
+                    resultSet.getObject("occurred_at", LocalDateTime.class).toInstant(ZoneOffset.UTC), objectMapper.readTree(resultSet.getString("payload")));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unreadable payload of outbox event " + resultSet.getLong("event_id"), ex);
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(properties.getRelayInterval().toMillis() + 5_000, TimeUnit.MILLISECONDS);
+    }
+}
@@ -1,15 +1,60 @@
 package com.charly.cards.repository;
 
 import com.charly.cards.entity.Card;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CardRepository extends JpaRepository<Card, Long> {
 
+    String EXPORT_FETCH_SIZE = "500";
+
     Optional<Card> findByMobileNumber(String mobileNumber);
 
+    List<Card> findByMobileNumberIn(Collection<String> mobileNumbers);
+
     Optional<Card> findByCardNumber(String cardNumber);
+
+    boolean existsByCardNumber(String cardNumber);
+
+    /**
+     * Charges the card in a single conditional update, so concurrent charges of the same card only queue on the row
+     * lock, never on a read-modify-write, and none of them is lost. Joins the transaction of the caller, if any, which
+     * then holds the lock until it commits. Bypasses the auditing listener, hence the explicit audit columns.
+     *
+     * @return 1 when charged, 0 when the card does not exist or the amount exceeds its available amount
+     */
+    @Transactional
+    @Modifying
+    @Query("update Card c set c.amountUsed = c.amountUsed + :amount, c.availableAmount = c.availableAmount - :amount, "
+            + "c.updatedAt = :updatedAt, c.updatedBy = :updatedBy where c.cardNumber = :cardNumber and c.availableAmount >= :amount")
+    int charge(@Param("cardNumber") String cardNumber, @Param("amount") int amount, @Param("updatedAt") LocalDateTime updatedAt, @Param("updatedBy") String updatedBy);
+
+    /**
+     * Keyset page: seeks to the first card id after the given one through the primary key, so deep pages cost the
+     * same as the first.
+     */
+    List<Card> findByCardIdGreaterThanOrderByCardIdAsc(Long cardId, Limit limit);
+
+    /**
+     * Every card, read through a forward-only cursor {@value #EXPORT_FETCH_SIZE} rows at a time. Has to be consumed
+     * inside a transaction and closed afterwards.
+     */
+    @Query("select c from Card c order by c.cardId")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE), @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<Card> streamAll();
 }
@@ -1,6 +1,12 @@
 package com.charly.cards.service;
 
 import com.charly.cards.dto.CardDto;
+import com.charly.cards.dto.PageDto;
+import com.charly.cards.etag.Versioned;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
 
 public interface CardService {
 
@@ -8,6 +14,16 @@ public interface CardService {
 
     CardDto getCard(String mobileNumber);
 
+    Versioned<CardDto> getVersionedCard(String mobileNumber);
+
+    List<CardDto> getCards(List<String> mobileNumbers);
+
+    PageDto<CardDto> getCards(String pageToken, int pageSize);
+
+    void exportCards(OutputStream outputStream) throws IOException;
+
+    CardDto chargeCard(String cardNumber, int amount);
+
     boolean updateCard(CardDto cardsDto);
 
     boolean deleteCard(String mobileNumber);
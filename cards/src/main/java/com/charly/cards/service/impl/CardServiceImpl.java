@@ -2,17 +2,40 @@ package com.charly.cards.service.impl;
 
 import com.charly.cards.constant.CardConstant;
 import com.charly.cards.dto.CardDto;
+import com.charly.cards.dto.PageDto;
 import com.charly.cards.entity.Card;
+import com.charly.cards.etag.Versioned;
 import com.charly.cards.exception.CardAlreadyExistsException;
+import com.charly.cards.exception.CardLimitExceededException;
 import com.charly.cards.exception.ResourceNotFoundException;
+import com.charly.cards.generator.NumberGenerator;
 import com.charly.cards.mapper.CardMapper;
+import com.charly.cards.mapper.PageMapper;
+import com.charly.cards.outbox.EventType;
+import com.charly.cards.outbox.OutboxWriter;
 import com.charly.cards.repository.CardRepository;
 import com.charly.cards.service.CardService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
 import lombok.AllArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Optional;
-import java.util.Random;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import static com.charly.cards.constant.CardConstant.CARD_EVENTS;
 
 @Service
 @AllArgsConstructor
@@ -20,19 +43,44 @@ public class CardServiceImpl implements CardService {
 
     private final CardRepository cardRepository;
 
+    private final NumberGenerator cardNumberGenerator;
+
+    private final ObjectMapper objectMapper;
+
+    private final EntityManager entityManager;
+
+    private final AuditorAware<String> auditAwareImpl;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final OutboxWriter outboxWriter;
+
     @Override
     public void createCard(String mobileNumber) {
-        Optional<Card> optionalCard = cardRepository.findByMobileNumber(mobileNumber);
-        if (optionalCard.isPresent()) {
-            throw new CardAlreadyExistsException("Card already registered with given mobileNumber " + mobileNumber);
+        // numbered before the transaction opens, see NumberGenerator
+        Card newCard = createNewCard(mobileNumber);
+        // the unique index on mobile_number detects duplicates, including concurrent creates, in the insert itself
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                cardRepository.saveAndFlush(newCard);
+                outboxWriter.append(CARD_EVENTS, mobileNumber, EventType.CREATED, CardMapper.mapToCardsDto(newCard, new CardDto()));
+            });
+        } catch (DataIntegrityViolationException ex) {
+            if (isDuplicateMobileNumber(ex)) {
+                throw new CardAlreadyExistsException("Card already registered with given mobileNumber " + mobileNumber);
+            }
+            throw ex;
         }
-        cardRepository.save(createNewCard(mobileNumber));
+    }
+
+    private static boolean isDuplicateMobileNumber(DataIntegrityViolationException ex) {
+        String message = ex.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains("ux_cards_mobile_number");
     }
 
     private Card createNewCard(String mobileNumber) {
         Card newCard = new Card();
-        long randomCardNumber = 100000000000L + new Random().nextInt(900000000);
-        newCard.setCardNumber(Long.toString(randomCardNumber));
+        newCard.setCardNumber(Long.toString(cardNumberGenerator.next()));
         newCard.setMobileNumber(mobileNumber);
         newCard.setCardType(CardConstant.CREDIT_CARD);
         newCard.setTotalLimit(CardConstant.NEW_CARD_LIMIT);
@@ -43,22 +91,86 @@ public class CardServiceImpl implements CardService {
 
     @Override
     public CardDto getCard(String mobileNumber) {
+        return getVersionedCard(mobileNumber).body().get();
+    }
+
+    @Override
+    public Versioned<CardDto> getVersionedCard(String mobileNumber) {
         Card card = cardRepository.findByMobileNumber(mobileNumber).orElseThrow(() -> new ResourceNotFoundException("Card", "mobileNumber", mobileNumber));
-        return CardMapper.mapToCardsDto(card, new CardDto());
+        return new Versioned<>(Versioned.weakETag(card.getCardId(), card.getCreatedAt(), card.getUpdatedAt()), () -> CardMapper.mapToCardsDto(card, new CardDto()));
+    }
+
+    @Override
+    public List<CardDto> getCards(List<String> mobileNumbers) {
+        return cardRepository.findByMobileNumberIn(new LinkedHashSet<>(mobileNumbers)).stream()
+                .map(card -> CardMapper.mapToCardsDto(card, new CardDto()))
+                .toList();
     }
 
     @Override
+    public PageDto<CardDto> getCards(String pageToken, int pageSize) {
+        List<Card> cards = cardRepository.findByCardIdGreaterThanOrderByCardIdAsc(PageMapper.mapToLastKey(pageToken), Limit.of(pageSize + 1));
+        return PageMapper.mapToPageDto(cards, pageSize, Card::getCardId, card -> CardMapper.mapToCardsDto(card, new CardDto()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportCards(OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(CardDto.class);
+        try (Stream<Card> cards = cardRepository.streamAll()) {
+            for (Iterator<Card> iterator = cards.iterator(); iterator.hasNext(); ) {
+                Card card = iterator.next();
+                outputStream.write(writer.writeValueAsBytes(CardMapper.mapToCardsDto(card, new CardDto())));
+                outputStream.write('\n');
+                // written rows are never read again, keeps the persistence context from growing with the table
+                entityManager.detach(card);
+            }
+        }
+    }
+
+    @Override
+    @Transactional
+    public CardDto chargeCard(String cardNumber, int amount) {
+        if (cardRepository.charge(cardNumber, amount, LocalDateTime.now(), auditor()) == 0) {
+            if (!cardRepository.existsByCardNumber(cardNumber)) {
+                throw new ResourceNotFoundException("Card", "CardNumber", cardNumber);
+            }
+            throw new CardLimitExceededException(cardNumber, amount);
+        }
+        Card card = cardRepository.findByCardNumber(cardNumber).orElseThrow(() -> new ResourceNotFoundException("Card", "CardNumber", cardNumber));
+        CardDto cardDto = CardMapper.mapToCardsDto(card, new CardDto());
+        outboxWriter.append(CARD_EVENTS, cardDto.getMobileNumber(), EventType.UPDATED, cardDto);
+        return cardDto;
+    }
+
+    private String auditor() {
+        return auditAwareImpl.getCurrentAuditor().orElse(null);
+    }
+
+    @Override
+    @Transactional
     public boolean updateCard(CardDto cardDto) {
         Card cards = cardRepository.findByCardNumber(cardDto.getCardNumber()).orElseThrow(() -> new ResourceNotFoundException("Card", "CardNumber", cardDto.getCardNumber()));
+        String previousMobileNumber = cards.getMobileNumber();
         CardMapper.mapToCards(cardDto, cards);
-        cardRepository.save(cards);
+        cardRepository.saveAndFlush(cards);
+        CardDto updated = CardMapper.mapToCardsDto(cards, new CardDto());
+        if (!previousMobileNumber.equals(updated.getMobileNumber())) {
+            // consumers key cards by mobile number, the card moves to another key
+            outboxWriter.append(CARD_EVENTS, previousMobileNumber, EventType.DELETED, updated);
+        }
+        outboxWriter.append(CARD_EVENTS, updated.getMobileNumber(), EventType.UPDATED, updated);
         return true;
     }
 
     @Override
+    @Transactional
     public boolean deleteCard(String mobileNumber) {
         Card cards = cardRepository.findByMobileNumber(mobileNumber).orElseThrow(() -> new ResourceNotFoundException("Card", "mobileNumber", mobileNumber));
+        CardDto deleted = CardMapper.mapToCardsDto(cards, new CardDto());
         cardRepository.deleteById(cards.getCardId());
+        cardRepository.flush();
+        outboxWriter.append(CARD_EVENTS, mobileNumber, EventType.DELETED, deleted);
         return true;
     }
 }
@@ -0,0 +1,3 @@
+CREATE UNIQUE INDEX `ux_cards_mobile_number` ON `cards` (`mobile_number`);
+
+CREATE UNIQUE INDEX `ux_cards_card_number` ON `cards` (`card_number`);
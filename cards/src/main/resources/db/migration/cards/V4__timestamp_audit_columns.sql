@@ -0,0 +1,2 @@
+ALTER TABLE `cards` MODIFY `created_at` datetime(6) NOT NULL;
+ALTER TABLE `cards` MODIFY `updated_at` datetime(6) DEFAULT NULL;
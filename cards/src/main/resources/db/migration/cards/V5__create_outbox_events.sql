@@ -0,0 +1,10 @@
+CREATE TABLE IF NOT EXISTS `outbox_events`
+(
+    `event_id`       bigint       NOT NULL AUTO_INCREMENT,
+    `aggregate_type` varchar(50)  NOT NULL,
+    `aggregate_id`   varchar(100) NOT NULL,
+    `event_type`     varchar(20)  NOT NULL,
+    `payload`        text         NOT NULL,
+    `occurred_at`    datetime(6)  NOT NULL,
+    PRIMARY KEY (`event_id`)
+);
@@ -0,0 +1,77 @@
+package com.charly.cards.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BlockSequenceNumberGeneratorTest {
+
+    private static final String SEQUENCE = "card_number";
+
+    @Test
+    void handsOutBlockBeforeReservingTheNextOne() {
+        SequenceBlockAllocator allocator = mock(SequenceBlockAllocator.class);
+        when(allocator.allocate(SEQUENCE, 3)).thenReturn(100L, 500L);
+        BlockSequenceNumberGenerator generator = new BlockSequenceNumberGenerator(SEQUENCE, 3, allocator);
+
+        List<Long> numbers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            numbers.add(generator.next());
+        }
+
+        assertThat(numbers).containsExactly(100L, 101L, 102L, 500L, 501L);
+        verify(allocator, times(2)).allocate(SEQUENCE, 3);
+    }
+
+    @Test
+    void concurrentCallersNeverShareANumberOrWasteABlock() throws Exception {
+        int blockSize = 50;
+        int threads = 8;
+        int perThread = 2_000;
+        AtomicLong nextStart = new AtomicLong(1_000);
+        SequenceBlockAllocator allocator = mock(SequenceBlockAllocator.class);
+        when(allocator.allocate(eq(SEQUENCE), anyInt())).thenAnswer(invocation -> nextStart.getAndAdd(blockSize));
+        BlockSequenceNumberGenerator generator = new BlockSequenceNumberGenerator(SEQUENCE, blockSize, allocator);
+
+        Set<Long> numbers = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        assertThat(numbers.add(generator.next())).isTrue();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(numbers).hasSize(threads * perThread);
+        verify(allocator, times(threads * perThread / blockSize)).allocate(SEQUENCE, blockSize);
+    }
+}
@@ -0,0 +1,48 @@
+package com.charly.cards.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LuhnNumberGeneratorTest {
+
+    @Test
+    void checkDigitMatchesKnownNumber() {
+        assertThat(LuhnNumberGenerator.checkDigit(7992739871L)).isEqualTo(3);
+        assertThat(LuhnNumberGenerator.checkDigit(0L)).isZero();
+    }
+
+    @Test
+    void appendsCheckDigitToEveryNumberOfTheDelegate() {
+        AtomicLong payload = new AtomicLong(100_000_000_000_000L);
+        LuhnNumberGenerator generator = new LuhnNumberGenerator(payload::getAndIncrement);
+
+        for (int i = 0; i < 1_000; i++) {
+            long number = generator.next();
+            assertThat(number / 10).isEqualTo(100_000_000_000_000L + i);
+            assertThat(isValid(number)).as("%d passes the Luhn check", number).isTrue();
+        }
+    }
+
+    @Test
+    void everySingleDigitTypoFailsTheCheck() {
+        long number = new LuhnNumberGenerator(() -> 412_345_678_901_234L).next();
+        String digits = Long.toString(number);
+
+        for (int position = 0; position < digits.length(); position++) {
+            for (char digit = '0'; digit <= '9'; digit++) {
+                if (digit == digits.charAt(position) || position == 0 && digit == '0') {
+                    continue;
+                }
+                long typo = Long.parseLong(digits.substring(0, position) + digit + digits.substring(position + 1));
+                assertThat(isValid(typo)).as("%d is rejected", typo).isFalse();
+            }
+        }
+    }
+
+    private static boolean isValid(long number) {
+        return LuhnNumberGenerator.checkDigit(number / 10) == number % 10;
+    }
+}
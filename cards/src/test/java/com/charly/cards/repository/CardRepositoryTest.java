@@ -0,0 +1,103 @@
+package com.charly.cards.repository;
+
+import com.charly.cards.audit.AuditAwareImpl;
+import com.charly.cards.entity.Card;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against H2 in MySQL mode, migrated with the production Flyway scripts. Not transactional, so every charge
+ * commits on its own connection like it does behind the controller.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cards;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.cloud.config.enabled=false",
+        "spring.cloud.config.import-check.enabled=false"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(AuditAwareImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CardRepositoryTest {
+
+    private static final int TOTAL_LIMIT = 12_500;
+
+    private static final int CHARGE = 1_000;
+
+    private static final int CHARGES = 20;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Test
+    void concurrentChargesAreBookedUntilTheAvailableAmountRunsOut() throws Exception {
+        Card card = cardRepository.save(card("4354437687", "100646930341"));
+
+        int booked = chargeConcurrently(card.getCardNumber());
+
+        Card charged = cardRepository.findByCardNumber(card.getCardNumber()).orElseThrow();
+        assertThat(booked).isEqualTo(TOTAL_LIMIT / CHARGE);
+        assertThat(CHARGES - booked).as("rejected charges").isEqualTo(CHARGES - TOTAL_LIMIT / CHARGE);
+        assertThat(charged.getAmountUsed()).isEqualTo(booked * CHARGE);
+        assertThat(charged.getAvailableAmount()).isEqualTo(TOTAL_LIMIT - booked * CHARGE);
+    }
+
+    @Test
+    void chargeOverTheLimitIsRejectedWithoutChangingTheBalance() {
+        Card card = cardRepository.save(card("4354437688", "100646930342"));
+
+        int booked = cardRepository.charge(card.getCardNumber(), TOTAL_LIMIT + 1, LocalDateTime.now(), "CARDS_MS");
+
+        Card unchanged = cardRepository.findByCardNumber(card.getCardNumber()).orElseThrow();
+        assertThat(booked).isZero();
+        assertThat(unchanged.getAmountUsed()).isZero();
+        assertThat(unchanged.getAvailableAmount()).isEqualTo(TOTAL_LIMIT);
+    }
+
+    private int chargeConcurrently(String cardNumber) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CHARGES);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> charges = new ArrayList<>();
+            for (int i = 0; i < CHARGES; i++) {
+                charges.add(executor.submit(() -> {
+                    start.await();
+                    return cardRepository.charge(cardNumber, CHARGE, LocalDateTime.now(), "CARDS_MS");
+                }));
+            }
+            start.countDown();
+            int booked = 0;
+            for (Future<Integer> charge : charges) {
+                booked += charge.get(10, TimeUnit.SECONDS);
+            }
+            return booked;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Card card(String mobileNumber, String cardNumber) {
+        Card card = new Card();
+        card.setMobileNumber(mobileNumber);
+        card.setCardNumber(cardNumber);
+        card.setCardType("Credit Card");
+        card.setTotalLimit(TOTAL_LIMIT);
+        card.setAvailableAmount(TOTAL_LIMIT);
+        return card;
+    }
+}
@@ -0,0 +1,99 @@
+package com.charly.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * The REST endpoints the load is driven at, named as in {@code loadtest.mix}.
+ */
+enum Endpoint {
+
+    ACCOUNT("account", Service.ACCOUNTS) {
+        @Override
+        HttpRequest.Builder request(URI baseUri, Workload workload) {
+            return get(baseUri, "/api/accounts/" + workload.randomMobileNumber());
+        }
+    },
+    CUSTOMER_DETAIL("customer-detail", Service.ACCOUNTS) {
+        @Override
+        HttpRequest.Builder request(URI baseUri, Workload workload) {
+            return get(baseUri, "/api/customers/" + workload.randomMobileNumber());
+        }
+    },
+    CUSTOMER_DETAIL_V2("customer-detail-v2", Service.ACCOUNTS) {
+        @Override
+        HttpRequest.Builder request(URI baseUri, Workload workload) {
+            return get(baseUri, "/api/v2/customers/" + workload.randomMobileNumber());
+        }
+    },
+    CUSTOMER_DETAILS_BATCH("customer-details-batch", Service.ACCOUNTS) {
+        @Override
+        HttpRequest.Builder request(URI baseUri, Workload workload) {
+            return post(baseUri, "/api/customers/batch", workload.randomBatchJson());
+        }
+    },
+    LOAN("loan", Service.LOANS) {
+        @Override
+        HttpRequest.Builder request(URI baseUri, Workload workload) {
+            return get(baseUri, "/api/loans/" + workload.randomMobileNumber());
+        }
+    },
+    LOANS_BATCH("loans-batch", Service.LOANS) {
+        @Override
+        HttpRequest.Builder request(URI baseUri, Workload workload) {
+            return post(baseUri, "/api/loans/batch", workload.randomBatchJson());
+        }
+    },
+    CARD("card", Service.CARDS) {
+        @Override
+        HttpRequest.Builder request(URI baseUri, Workload workload) {
+            return get(baseUri, "/api/cards/" + workload.randomMobileNumber());
+        }
+    },
+    CARDS_BATCH("cards-batch", Service.CARDS) {
+        @Override
+        HttpRequest.Builder request(URI baseUri, Workload workload) {
+            return post(baseUri, "/api/cards/batch", workload.randomBatchJson());
+        }
+    };
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String endpointName;
+
+    private final Service service;
+
+    Endpoint(String endpointName, Service service) {
+        this.endpointName = endpointName;
+        this.service = service;
+    }
+
+    String endpointName() {
+        return endpointName;
+    }
+
+    HttpRequest request(Topology topology, Workload workload) {
+        return request(topology.baseUri(service), workload).timeout(REQUEST_TIMEOUT).build();
+    }
+
+    abstract HttpRequest.Builder request(URI baseUri, Workload workload);
+
+    static Endpoint fromName(String endpointName) {
+        return Arrays.stream(values())
+                .filter(endpoint -> endpoint.endpointName.equals(endpointName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown endpoint " + endpointName));
+    }
+
+    private static HttpRequest.Builder get(URI baseUri, String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).GET();
+    }
+
+    private static HttpRequest.Builder post(URI baseUri, String path, String json) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+}
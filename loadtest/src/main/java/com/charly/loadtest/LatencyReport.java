@@ -0,0 +1,65 @@
+package com.charly.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Prints throughput and latency percentiles per endpoint, and writes each endpoint's full latency distribution as an
+ * .hgrm file that HdrHistogram's plotter can compare across runs.
+ */
+final class LatencyReport {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private static final String ROW = "%-24s %10s %8s %9s %10s %9s %9s %9s %9s%n";
+
+    private LatencyReport() {
+        // restrict instantiation
+    }
+
+    static void write(LoadProfile profile, Map<Endpoint, EndpointStats> stats, PrintStream out) throws IOException {
+        Files.createDirectories(profile.output());
+        double seconds = profile.duration().toMillis() / 1000.0;
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        long totalRejected = 0;
+
+        out.printf("Offered load %d req/s for %s after %s warmup, %d customers, %s threads%n",
+                profile.rate(), profile.duration(), profile.warmup(), profile.customers(),
+                profile.virtualThreads() ? "virtual" : "platform");
+        out.printf(ROW, "endpoint", "requests", "errors", "rejected", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<Endpoint, EndpointStats> entry : stats.entrySet()) {
+            EndpointStats endpointStats = entry.getValue();
+            Histogram histogram = endpointStats.histogram();
+            printRow(out, entry.getKey().endpointName(), histogram, endpointStats.errors(), endpointStats.rejected(), seconds);
+            writeDistribution(profile.output().resolve(entry.getKey().endpointName() + ".hgrm"), histogram);
+            total.add(histogram);
+            totalErrors += endpointStats.errors();
+            totalRejected += endpointStats.rejected();
+        }
+        printRow(out, "total", total, totalErrors, totalRejected, seconds);
+        writeDistribution(profile.output().resolve("total.hgrm"), total);
+    }
+
+    private static void printRow(PrintStream out, String name, Histogram histogram, long errors, long rejected, double seconds) {
+        out.printf(ROW, name, histogram.getTotalCount(), errors, rejected,
+                String.format("%.1f", histogram.getTotalCount() / seconds),
+                millis(histogram, 50.0), millis(histogram, 99.0), millis(histogram, 99.9),
+                String.format("%.2f", histogram.getMaxValue() / MICROS_PER_MILLI));
+    }
+
+    private static String millis(Histogram histogram, double percentile) {
+        return String.format("%.2f", histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI);
+    }
+
+    private static void writeDistribution(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.charly.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Load to drive, read from {@code loadtest.*} system properties (see the properties in the loadtest pom).
+ *
+ * @param rate           requests per second, started on schedule whether or not earlier requests have completed
+ * @param duration       length of the measured run
+ * @param warmup         length of the unmeasured run before it
+ * @param customers      customers seeded with an account, a loan and a card before the run
+ * @param batchSize      mobile numbers per batch request
+ * @param maxInFlight    requests allowed in flight before new arrivals are counted as rejected instead of sent
+ * @param mix            relative weight of each endpoint
+ * @param output         directory the report and the latency histograms are written to
+ * @param virtualThreads whether the services run with spring.threads.virtual.enabled
+ */
+record LoadProfile(int rate, Duration duration, Duration warmup, int customers, int batchSize, int maxInFlight,
+                   Map<Endpoint, Integer> mix, Path output, boolean virtualThreads) {
+
+    static LoadProfile fromSystemProperties() {
+        return new LoadProfile(
+                Integer.getInteger("loadtest.rate", 200),
+                DurationStyle.detectAndParse(System.getProperty("loadtest.duration", "60s")),
+                DurationStyle.detectAndParse(System.getProperty("loadtest.warmup", "30s")),
+                Integer.getInteger("loadtest.customers", 1000),
+                Integer.getInteger("loadtest.batch-size", 50),
+                Integer.getInteger("loadtest.max-in-flight", 2000),
+                parseMix(System.getProperty("loadtest.mix",
+                        "account=20,customer-detail=40,customer-details-batch=5,loan=15,loans-batch=2,card=15,cards-batch=3")),
+                Path.of(System.getProperty("loadtest.output", "target/loadtest")),
+                Boolean.getBoolean("loadtest.virtual-threads"));
+    }
+
+    private static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        Arrays.stream(mix.split(","))
+                .map(String::trim)
+                .filter(entry -> !entry.isEmpty())
+                .forEach(entry -> {
+                    String[] nameAndWeight = entry.split("=");
+                    if (nameAndWeight.length != 2) {
+                        throw new IllegalArgumentException("Mix entry must be <endpoint>=<weight> but was " + entry);
+                    }
+                    int weight = Integer.parseInt(nameAndWeight[1].trim());
+                    if (weight > 0) {
+                        weights.put(Endpoint.fromName(nameAndWeight[0].trim()), weight);
+                    }
+                });
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Mix must give at least one endpoint a positive weight");
+        }
+        return Collections.unmodifiableMap(weights);
+    }
+}
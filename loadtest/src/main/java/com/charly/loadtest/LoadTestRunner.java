@@ -0,0 +1,72 @@
+package com.charly.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Boots the topology, seeds customers through the REST APIs, drives the configured load and reports on it.
+ */
+public class LoadTestRunner {
+
+    private static final int SEED_CONCURRENCY = 32;
+
+    public static void main(String[] args) throws Exception {
+        LoadProfile profile = LoadProfile.fromSystemProperties();
+        Workload workload = new Workload(profile.customers(), profile.batchSize());
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        try (Topology topology = Topology.start(profile.virtualThreads())) {
+            seed(httpClient, topology, workload);
+            Map<Endpoint, EndpointStats> stats = new OpenLoadGenerator(httpClient, topology, workload, profile).run();
+            ByteArrayOutputStream report = new ByteArrayOutputStream();
+            LatencyReport.write(profile, stats, new PrintStream(report, true));
+            System.out.print(report);
+            Files.write(profile.output().resolve("report.txt"), report.toByteArray());
+        }
+    }
+
+    private static void seed(HttpClient httpClient, Topology topology, Workload workload) throws InterruptedException {
+        Semaphore permits = new Semaphore(SEED_CONCURRENCY);
+        List<CompletableFuture<?>> requests = new ArrayList<>();
+        for (int i = 0; i < workload.customers(); i++) {
+            String mobileNumber = Workload.mobileNumber(i);
+            requests.add(seed(httpClient, permits, HttpRequest.newBuilder(topology.baseUri(Service.ACCOUNTS).resolve("/api/accounts"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(Workload.customerJson(i)))
+                    .build()));
+            requests.add(seed(httpClient, permits, HttpRequest.newBuilder(
+                    topology.baseUri(Service.LOANS).resolve("/api/loans?mobileNumber=" + mobileNumber))
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build()));
+            requests.add(seed(httpClient, permits, HttpRequest.newBuilder(
+                    topology.baseUri(Service.CARDS).resolve("/api/cards?mobileNumber=" + mobileNumber))
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build()));
+        }
+        CompletableFuture.allOf(requests.toArray(CompletableFuture[]::new)).join();
+    }
+
+    private static CompletableFuture<?> seed(HttpClient httpClient, Semaphore permits, HttpRequest request) throws InterruptedException {
+        permits.acquire();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, failure) -> permits.release())
+                .thenAccept(response -> {
+                    if (response.statusCode() != 201) {
+                        throw new IllegalStateException("Seeding " + request.uri() + " failed with " + response.statusCode()
+                                + ": " + response.body());
+                    }
+                });
+    }
+}
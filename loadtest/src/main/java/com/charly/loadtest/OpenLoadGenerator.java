@@ -0,0 +1,112 @@
+package com.charly.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives an open workload: requests are started at a fixed rate whether or not earlier ones have completed, and
+ * latency is measured from the time a request was scheduled to start, so a stalled server shows up as latency
+ * instead of silently lowering the offered load.
+ */
+final class OpenLoadGenerator {
+
+    private static final long DRAIN_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final HttpClient httpClient;
+
+    private final Topology topology;
+
+    private final Workload workload;
+
+    private final LoadProfile profile;
+
+    private final Endpoint[] endpoints;
+
+    private final int[] cumulativeWeights;
+
+    private final Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    OpenLoadGenerator(HttpClient httpClient, Topology topology, Workload workload, LoadProfile profile) {
+        this.httpClient = httpClient;
+        this.topology = topology;
+        this.workload = workload;
+        this.profile = profile;
+        this.endpoints = profile.mix().keySet().toArray(Endpoint[]::new);
+        this.cumulativeWeights = new int[endpoints.length];
+        int total = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            total += profile.mix().get(endpoints[i]);
+            cumulativeWeights[i] = total;
+            stats.put(endpoints[i], new EndpointStats());
+        }
+    }
+
+    Map<Endpoint, EndpointStats> run() {
+        long start = System.nanoTime();
+        long measureFrom = start + profile.warmup().toNanos();
+        long end = measureFrom + profile.duration().toNanos();
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * TimeUnit.SECONDS.toNanos(1) / profile.rate();
+            if (scheduled >= end) {
+                break;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            send(pickEndpoint(), scheduled, scheduled >= measureFrom);
+        }
+        drain();
+        return Collections.unmodifiableMap(stats);
+    }
+
+    private void send(Endpoint endpoint, long scheduled, boolean measured) {
+        EndpointStats endpointStats = stats.get(endpoint);
+        if (inFlight.incrementAndGet() > profile.maxInFlight()) {
+            inFlight.decrementAndGet();
+            if (measured) {
+                endpointStats.recordRejected();
+            }
+            return;
+        }
+        httpClient.sendAsync(endpoint.request(topology, workload), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, failure) -> {
+                    long latency = System.nanoTime() - scheduled;
+                    inFlight.decrementAndGet();
+                    if (!measured) {
+                        return;
+                    }
+                    if (failure != null || response.statusCode() >= 400) {
+                        endpointStats.recordError();
+                    } else {
+                        endpointStats.recordSuccess(latency);
+                    }
+                });
+    }
+
+    private Endpoint pickEndpoint() {
+        int pick = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return endpoints[i];
+            }
+        }
+        throw new IllegalStateException("Weight " + pick + " is outside the mix");
+    }
+
+    private void drain() {
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT_NANOS;
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+}
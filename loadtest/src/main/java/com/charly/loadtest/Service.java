@@ -0,0 +1,33 @@
+package com.charly.loadtest;
+
+/**
+ * The microservices the harness boots, with the Spring Boot application class each one is started from.
+ */
+enum Service {
+
+    LOANS("loans", "com.charly.loans.LoansApplication"),
+    CARDS("cards", "com.charly.cards.CardsApplication"),
+    ACCOUNTS("accounts", "com.charly.accounts.AccountsApplication");
+
+    private final String serviceId;
+
+    private final String applicationClass;
+
+    Service(String serviceId, String applicationClass) {
+        this.serviceId = serviceId;
+        this.applicationClass = applicationClass;
+    }
+
+    String serviceId() {
+        return serviceId;
+    }
+
+    Class<?> applicationClass() {
+        try {
+            // looked up by name because AccountsApplication is package-private
+            return Class.forName(applicationClass);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Application class of " + serviceId + " is not on the classpath", e);
+        }
+    }
+}
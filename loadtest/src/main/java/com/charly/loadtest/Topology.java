@@ -0,0 +1,120 @@
+package com.charly.loadtest;
+
+import com.charly.configserver.ConfigserverApplication;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Boots the config server, loans, cards and accounts in this JVM with local stand-ins for their infrastructure:
+ * <ul>
+ *     <li>H2 in MySQL mode instead of MySQL, migrated with the services' own Flyway scripts</li>
+ *     <li>the config server with the native profile, serving the files under configserver/src/main/resources/config</li>
+ *     <li>Spring Cloud's simple discovery client instead of Eureka, listing the ports loans and cards came up on</li>
+ *     <li>the file event broker on a directory of its own, so no run sees the events of an earlier one</li>
+ * </ul>
+ * Every service otherwise runs with its own application.yml.
+ */
+final class Topology implements AutoCloseable {
+
+    // the services import their configuration from this port, see spring.config.import in their application.yml
+    private static final int CONFIG_SERVER_PORT = 8071;
+
+    private final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+
+    private final Map<Service, URI> baseUris = new EnumMap<>(Service.class);
+
+    private final boolean virtualThreads;
+
+    private final Path eventsDirectory;
+
+    private Topology(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+        try {
+            this.eventsDirectory = Files.createTempDirectory("eazybank-events-");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static Topology start(boolean virtualThreads) {
+        Topology topology = new Topology(virtualThreads);
+        try {
+            topology.startConfigServer();
+            topology.startService(Service.LOANS);
+            topology.startService(Service.CARDS);
+            topology.startService(Service.ACCOUNTS,
+                    discoveryInstance(Service.LOANS, topology.baseUri(Service.LOANS)),
+                    discoveryInstance(Service.CARDS, topology.baseUri(Service.CARDS)));
+            return topology;
+        } catch (RuntimeException e) {
+            topology.close();
+            throw e;
+        }
+    }
+
+    URI baseUri(Service service) {
+        return baseUris.get(service);
+    }
+
+    private void startConfigServer() {
+        contexts.add(new SpringApplicationBuilder(ConfigserverApplication.class)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .run("--spring.config.location=classpath:/services/configserver/application.yml",
+                        "--spring.profiles.active=native",
+                        "--spring.cloud.config.server.native.search-locations=classpath:/services/configserver/config/",
+                        "--spring.cloud.config.enabled=false",
+                        // the services' JPA and Flyway share this classpath, the config server has no database
+                        "--spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration",
+                        "--server.port=" + CONFIG_SERVER_PORT,
+                        "--eureka.client.enabled=false",
+                        "--logging.level.root=WARN"));
+    }
+
+    private void startService(Service service, String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.config.location=classpath:/services/" + service.serviceId() + "/application.yml",
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:" + service.serviceId() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.show-sql=false",
+                "--eureka.client.enabled=false",
+                // the config server jar on this classpath switches the config client off unless told otherwise
+                "--spring.cloud.config.enabled=true",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--outbox.directory=" + eventsDirectory,
+                "--logging.level.root=WARN"));
+        Collections.addAll(args, extraArgs);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(service.applicationClass())
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .run(args.toArray(String[]::new));
+        contexts.add(context);
+        baseUris.put(service, URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port")));
+    }
+
+    private static String discoveryInstance(Service service, URI uri) {
+        return "--spring.cloud.discovery.client.simple.instances." + service.serviceId() + "[0].uri=" + uri;
+    }
+
+    @Override
+    public void close() {
+        for (int i = contexts.size() - 1; i >= 0; i--) {
+            contexts.get(i).close();
+        }
+        contexts.clear();
+    }
+}
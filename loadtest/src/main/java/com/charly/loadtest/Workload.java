@@ -0,0 +1,43 @@
+package com.charly.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * The seeded customers the load is spread over, picked uniformly at random.
+ */
+final class Workload {
+
+    private final int customers;
+
+    private final int batchSize;
+
+    Workload(int customers, int batchSize) {
+        this.customers = customers;
+        this.batchSize = batchSize;
+    }
+
+    int customers() {
+        return customers;
+    }
+
+    static String mobileNumber(int index) {
+        return String.format("9%09d", index);
+    }
+
+    String randomMobileNumber() {
+        return mobileNumber(ThreadLocalRandom.current().nextInt(customers));
+    }
+
+    String randomBatchJson() {
+        return IntStream.range(0, batchSize)
+                .mapToObj(i -> '"' + randomMobileNumber() + '"')
+                .collect(Collectors.joining(",", "[", "]"));
+    }
+
+    static String customerJson(int index) {
+        return "{\"name\":\"Customer " + index + "\",\"email\":\"customer" + index + "@eazybytes.com\",\"mobileNumber\":\""
+                + mobileNumber(index) + "\"}";
+    }
+}
@@ -1,6 +1,10 @@
 package com.charly.loans;
 
 import com.charly.loans.dto.LoanContactInfoDto;
+import com.charly.loans.generator.NumberGeneratorProperties;
+import com.charly.loans.idempotency.IdempotencyProperties;
+import com.charly.loans.outbox.OutboxProperties;
+import com.charly.loans.sql.SqlObservabilityProperties;
 import io.swagger.v3.oas.annotations.ExternalDocumentation;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.info.Contact;
@@ -13,7 +17,7 @@ import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 
 @SpringBootApplication
 @EnableJpaAuditing(auditorAwareRef = "auditAwareImpl")
-@EnableConfigurationProperties(value = {LoanContactInfoDto.class})
+@EnableConfigurationProperties(value = {LoanContactInfoDto.class, NumberGeneratorProperties.class, IdempotencyProperties.class, OutboxProperties.class, SqlObservabilityProperties.class})
 @OpenAPIDefinition(info = @Info(title = "Loans microservice REST API Documentation", description = "EazyBank Loans microservice REST API Documentation", version = "v1", contact = @Contact(name = "Madan Reddy", email = "tutor@eazybytes.com", url = "https://www.eazybytes.com"), license = @License(name = "Apache 2.0", url = "https://www.eazybytes.com")), externalDocs = @ExternalDocumentation(description = "EazyBank Loans microservice REST API Documentation", url = "https://www.eazybytes.com/swagger-ui.html"))
 public class LoansApplication {
 
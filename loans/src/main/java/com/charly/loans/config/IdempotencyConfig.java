@@ -0,0 +1,22 @@
+package com.charly.loans.config;
+
+import com.charly.loans.idempotency.CaffeineIdempotencyStore;
+import com.charly.loans.idempotency.IdempotencyProperties;
+import com.charly.loans.idempotency.IdempotencyStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdempotencyConfig {
+
+    /**
+     * Local store, backs off when a shared one is defined.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public IdempotencyStore idempotencyStore(IdempotencyProperties properties, MeterRegistry meterRegistry) {
+        return new CaffeineIdempotencyStore(properties, meterRegistry);
+    }
+}
@@ -0,0 +1,19 @@
+package com.charly.loans.config;
+
+import com.charly.loans.generator.BlockSequenceNumberGenerator;
+import com.charly.loans.generator.NumberGenerator;
+import com.charly.loans.generator.NumberGeneratorProperties;
+import com.charly.loans.generator.SequenceBlockAllocator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class NumberGeneratorConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public NumberGenerator loanNumberGenerator(SequenceBlockAllocator allocator, NumberGeneratorProperties properties) {
+        return new BlockSequenceNumberGenerator("loan_number", properties.getBlockSize(), allocator);
+    }
+}
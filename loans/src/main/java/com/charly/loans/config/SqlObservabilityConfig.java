@@ -0,0 +1,34 @@
+package com.charly.loans.config;
+
+import com.charly.loans.sql.SqlObservabilityListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class SqlObservabilityConfig {
+
+    /**
+     * Routes every statement through {@link SqlObservabilityListener}. Static and lazily resolved because a
+     * BeanPostProcessor is created before the beans it post-processes.
+     */
+    @Bean
+    public static BeanPostProcessor sqlObservabilityDataSourcePostProcessor(ObjectProvider<SqlObservabilityListener> listener) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(listener.getObject())
+                        .build();
+            }
+        };
+    }
+}
@@ -4,6 +4,10 @@ public class LoanConstant {
 
     public static final String HOME_LOAN = "Home Loan";
     public static final int NEW_LOAN_LIMIT = 1_00_000;
+    public static final int MAX_BATCH_SIZE = 1000;
+    public static final String LOAN_EVENTS = "loans";
+    public static final String DEFAULT_PAGE_SIZE = "100";
+    public static final int MAX_PAGE_SIZE = 1000;
     public static final String STATUS_201 = "201";
     public static final String MESSAGE_201 = "Loan created successfully";
     public static final String STATUS_200 = "200";
@@ -2,9 +2,13 @@ package com.charly.loans.controller;
 
 import com.charly.loans.constant.LoanConstant;
 import com.charly.loans.dto.ErrorResponseDto;
+import com.charly.loans.dto.PageDto;
+import com.charly.loans.dto.PaymentDto;
 import com.charly.loans.dto.LoanContactInfoDto;
 import com.charly.loans.dto.LoanDto;
 import com.charly.loans.dto.ResponseDto;
+import com.charly.loans.etag.Versioned;
+import com.charly.loans.idempotency.IdempotentRequests;
 import com.charly.loans.service.LoanService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,8 +16,13 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
@@ -22,6 +31,12 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.util.List;
+
+import static com.charly.loans.idempotency.IdempotentRequests.IDEMPOTENCY_KEY_HEADER;
 
 @Tag(name = "CRUD REST APIs for Loans in EazyBank", description = "CRUD REST APIs in EazyBank to CREATE, UPDATE, FETCH AND DELETE loan details")
 @RestController
@@ -31,6 +46,8 @@ public class LoanController {
 
     private LoanService loansService;
 
+    private IdempotentRequests idempotentRequests;
+
     @Value("${build.version}")
     private String buildVersion;
 
@@ -40,26 +57,66 @@ public class LoanController {
     @Autowired
     private LoanContactInfoDto loanContactInfoDto;
 
-    public LoanController(LoanService loansService) {
+    public LoanController(LoanService loansService, IdempotentRequests idempotentRequests) {
         this.loansService = loansService;
+        this.idempotentRequests = idempotentRequests;
     }
 
     @Operation(summary = "Create Loan REST API", description = "REST API to create new loan inside EazyBank")
-    @ApiResponses({@ApiResponse(responseCode = "201", description = "HTTP Status CREATED"), @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))})
+    @ApiResponses({@ApiResponse(responseCode = "201", description = "HTTP Status CREATED"), @ApiResponse(responseCode = "409", description = "HTTP Status Conflict", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))), @ApiResponse(responseCode = "422", description = "HTTP Status Unprocessable Entity", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))), @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))})
     @PostMapping()
-    public ResponseEntity<ResponseDto> createLoan(@RequestParam @Pattern(regexp = "(^$|[0-9]{10,13})", message = "Mobile number must be 10 to 13 digits") String mobileNumber) {
-        loansService.createLoan(mobileNumber);
-        return ResponseEntity.status(HttpStatus.CREATED).body(new ResponseDto(LoanConstant.STATUS_201, LoanConstant.MESSAGE_201));
+    public ResponseEntity<ResponseDto> createLoan(@RequestParam @Pattern(regexp = "(^$|[0-9]{10,13})", message = "Mobile number must be 10 to 13 digits") String mobileNumber, @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) @Size(max = 255, message = "Idempotency key can be at most 255 characters") String idempotencyKey) {
+        return idempotentRequests.execute("createLoan", idempotencyKey, mobileNumber, () -> {
+            loansService.createLoan(mobileNumber);
+            return ResponseEntity.status(HttpStatus.CREATED).body(new ResponseDto(LoanConstant.STATUS_201, LoanConstant.MESSAGE_201));
+        });
     }
 
     @Operation(summary = "Fetch Loan Details REST API", description = "REST API to fetch loan details based on a mobile number")
-    @ApiResponses({@ApiResponse(responseCode = "200", description = "HTTP Status OK"), @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))})
+    @ApiResponses({@ApiResponse(responseCode = "200", description = "HTTP Status OK"), @ApiResponse(responseCode = "304", description = "HTTP Status Not Modified"), @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))})
     @GetMapping("/{mobileNumber}")
-    public ResponseEntity<LoanDto> fetchLoanDetails(@PathVariable @Pattern(regexp = "(^$|[0-9]{10,13})", message = "Mobile number must be 10 to 13 digits") String mobileNumber) {
-        LoanDto loansDto = loansService.getLoan(mobileNumber);
+    public ResponseEntity<LoanDto> fetchLoanDetails(@PathVariable @Pattern(regexp = "(^$|[0-9]{10,13})", message = "Mobile number must be 10 to 13 digits") String mobileNumber, WebRequest webRequest) {
+        Versioned<LoanDto> loan = loansService.getVersionedLoan(mobileNumber);
+        if (webRequest.checkNotModified(loan.eTag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return ResponseEntity.status(HttpStatus.OK).body(loan.body().get());
+    }
+
+    @Operation(summary = "Fetch Loan Details in batch REST API", description = "REST API to fetch loan details of many mobile numbers in one call")
+    @ApiResponses({@ApiResponse(responseCode = "200", description = "HTTP Status OK"), @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))})
+    @PostMapping("/batch")
+    public ResponseEntity<List<LoanDto>> fetchLoanDetailsBatch(@RequestBody @NotEmpty(message = "Mobile numbers can not be empty") @Size(max = LoanConstant.MAX_BATCH_SIZE, message = "At most 1000 mobile numbers can be fetched at once") List<@Pattern(regexp = "(^$|[0-9]{10,13})", message = "Mobile number must be 10 to 13 digits") String> mobileNumbers) {
+        List<LoanDto> loansDto = loansService.getLoans(mobileNumbers);
         return ResponseEntity.status(HttpStatus.OK).body(loansDto);
     }
 
+    @Operation(summary = "List Loans REST API", description = "REST API to page through loans in loan id order. Pass the nextPageToken of a page as pageToken to fetch the next one")
+    @ApiResponses({@ApiResponse(responseCode = "200", description = "HTTP Status OK"), @ApiResponse(responseCode = "400", description = "HTTP Status Bad Request", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))), @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))})
+    @GetMapping()
+    public ResponseEntity<PageDto<LoanDto>> getLoans(@RequestParam(name = "pageToken", required = false) String pageToken, @RequestParam(name = "size", defaultValue = LoanConstant.DEFAULT_PAGE_SIZE) @Min(value = 1, message = "Page size must be at least 1") @Max(value = LoanConstant.MAX_PAGE_SIZE, message = "At most 1000 loans can be fetched per page") int size) {
+        PageDto<LoanDto> page = loansService.getLoans(pageToken, size);
+        return ResponseEntity.status(HttpStatus.OK).body(page);
+    }
+
+    @Operation(summary = "Export Loans REST API", description = "REST API to stream every loan as newline-delimited JSON, one loan per line")
+    @ApiResponses({@ApiResponse(responseCode = "200", description = "HTTP Status OK"), @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))})
+    @GetMapping(path = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE})
+    public void exportLoans(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        loansService.exportLoans(response.getOutputStream());
+    }
+
+    @Operation(summary = "Repay Loan REST API", description = "REST API to book a payment against a loan based on a loan number. Concurrent payments of the same loan are applied atomically and never lost")
+    @ApiResponses({@ApiResponse(responseCode = "200", description = "HTTP Status OK"), @ApiResponse(responseCode = "400", description = "HTTP Status Bad Request", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))), @ApiResponse(responseCode = "404", description = "HTTP Status Not Found", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))), @ApiResponse(responseCode = "409", description = "HTTP Status Conflict", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))), @ApiResponse(responseCode = "422", description = "HTTP Status Unprocessable Entity", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))), @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))})
+    @PostMapping("/{loanNumber}/payments")
+    public ResponseEntity<LoanDto> repayLoan(@PathVariable("loanNumber") @Pattern(regexp = "(^$|[0-9]{12})", message = "LoanNumber must be 12 digits") String loanNumber, @Valid @RequestBody PaymentDto paymentDto, @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) @Size(max = 255, message = "Idempotency key can be at most 255 characters") String idempotencyKey) {
+        return idempotentRequests.execute("repayLoan", idempotencyKey, List.of(loanNumber, paymentDto), () -> {
+            LoanDto loanDto = loansService.repayLoan(loanNumber, paymentDto.getAmount());
+            return ResponseEntity.status(HttpStatus.OK).body(loanDto);
+        });
+    }
+
     @Operation(summary = "Update Loan Details REST API", description = "REST API to update loan details based on a loan number")
     @ApiResponses({@ApiResponse(responseCode = "200", description = "HTTP Status OK"), @ApiResponse(responseCode = "417", description = "Expectation Failed"), @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))})
     @PutMapping()
@@ -0,0 +1,19 @@
+package com.charly.loans.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@Schema(name = "Page", description = "Schema to hold one page of a listing")
+public class PageDto<T> {
+
+    @Schema(description = "Items of this page, in primary key order")
+    private List<T> items;
+
+    @Schema(description = "Token to pass as pageToken to fetch the next page, absent on the last page", example = "djE6MTAw")
+    private String nextPageToken;
+}
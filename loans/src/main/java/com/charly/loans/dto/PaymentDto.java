@@ -0,0 +1,14 @@
+package com.charly.loans.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+@Schema(name = "Payment", description = "Schema to hold a repayment of a loan")
+@Data
+public class PaymentDto {
+
+    @Positive(message = "Paid amount should be greater than zero")
+    @Schema(description = "Amount paid, taken from the outstanding amount of the loan", example = "1000")
+    private int amount;
+}
@@ -0,0 +1,26 @@
+package com.charly.loans.etag;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Response body of a conditional GET together with the weak ETag of the rows it is mapped from. The body is only
+ * mapped when asked for, so a request whose {@code If-None-Match} still matches is answered with 304 without running
+ * the mapper.
+ */
+public record Versioned<T>(String eTag, Supplier<T> body) {
+
+    /**
+     * @param key        - identifies the rows the body is mapped from, may only contain ETag-safe characters
+     * @param modifiedAt - last modification time of each of those rows, null entries are skipped
+     * @return weak ETag that changes whenever one of the rows is updated
+     */
+    public static String weakETag(Object key, LocalDateTime... modifiedAt) {
+        LocalDateTime latest = Arrays.stream(modifiedAt).filter(Objects::nonNull).max(Comparator.naturalOrder()).orElse(LocalDateTime.MIN);
+        return String.format("W/\"%s-%x%08x\"", key, latest.toEpochSecond(ZoneOffset.UTC), latest.getNano());
+    }
+}
@@ -0,0 +1,12 @@
+package com.charly.loans.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class InvalidPageTokenException extends RuntimeException {
+
+    public InvalidPageTokenException(String pageToken) {
+        super(String.format("Page token '%s' is not valid, start over without a pageToken", pageToken));
+    }
+}
@@ -0,0 +1,12 @@
+package com.charly.loans.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class LoanOverpaymentException extends RuntimeException {
+
+    public LoanOverpaymentException(String loanNumber, int amount) {
+        super(String.format("Payment of %d exceeds the outstanding amount of loan '%s'", amount, loanNumber));
+    }
+}
@@ -0,0 +1,64 @@
+package com.charly.loans.generator;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out numbers from a block reserved in the database. Taking a number is a single atomic increment;
+ * only the thread that exhausts a block goes back to the database for the next one.
+ */
+public class BlockSequenceNumberGenerator implements NumberGenerator {
+
+    private final String sequenceName;
+
+    private final int blockSize;
+
+    private final SequenceBlockAllocator allocator;
+
+    private final ReentrantLock refillLock = new ReentrantLock();
+
+    private volatile Block block = new Block(0, 0);
+
+    public BlockSequenceNumberGenerator(String sequenceName, int blockSize, SequenceBlockAllocator allocator) {
+        this.sequenceName = sequenceName;
+        this.blockSize = blockSize;
+        this.allocator = allocator;
+    }
+
+    @Override
+    public long next() {
+        while (true) {
+            Block current = block;
+            long value = current.next.getAndIncrement();
+            if (value < current.end) {
+                return value;
+            }
+            refill(current);
+        }
+    }
+
+    private void refill(Block exhausted) {
+        refillLock.lock();
+        try {
+            // another thread may have replaced the block while this one waited for the lock
+            if (block == exhausted) {
+                long start = allocator.allocate(sequenceName, blockSize);
+                block = new Block(start, start + blockSize);
+            }
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    private static final class Block {
+
+        private final AtomicLong next;
+
+        private final long end;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
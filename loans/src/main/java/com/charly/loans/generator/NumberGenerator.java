@@ -0,0 +1,15 @@
+package com.charly.loans.generator;
+
+/**
+ * Source of unique business numbers such as account, card and loan numbers.
+ * <p>
+ * Take the number before opening the transaction that stores it: refilling a block needs a connection of its own,
+ * so callers that already hold one can drain the pool and end up waiting on each other.
+ */
+public interface NumberGenerator {
+
+    /**
+     * @return a number never returned before by any replica sharing the same database
+     */
+    long next();
+}
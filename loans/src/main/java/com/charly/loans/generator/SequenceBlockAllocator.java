@@ -0,0 +1,42 @@
+package com.charly.loans.generator;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Reserves ranges of numbers from the {@code number_sequences} table. The update takes the row lock,
+ * so concurrent replicas always receive disjoint ranges.
+ */
+@Component
+public class SequenceBlockAllocator {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public SequenceBlockAllocator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * @param sequenceName - name of the sequence row
+     * @param blockSize    - amount of numbers to reserve
+     * @return first number of the reserved range
+     */
+    public long allocate(String sequenceName, int blockSize) {
+        Long end = transactionTemplate.execute(status -> {
+            int updated = jdbcTemplate.update("UPDATE number_sequences SET next_value = next_value + ? WHERE sequence_name = ? AND next_value + ? <= max_value + 1",
+                    blockSize, sequenceName, blockSize);
+            if (updated == 0) {
+                throw new IllegalStateException("Sequence " + sequenceName + " is missing or exhausted");
+            }
+            return jdbcTemplate.queryForObject("SELECT next_value FROM number_sequences WHERE sequence_name = ?", Long.class, sequenceName);
+        });
+        return end - blockSize;
+    }
+}
@@ -0,0 +1,60 @@
+package com.charly.loans.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * {@link IdempotencyStore} in local memory. Completed records expire after the TTL, claims of running requests after
+ * the much shorter in-progress TTL.
+ */
+public class CaffeineIdempotencyStore implements IdempotencyStore {
+
+    private static final String CACHE_NAME = "idempotency";
+
+    private final Cache<String, IdempotencyRecord> records;
+
+    public CaffeineIdempotencyStore(IdempotencyProperties properties, MeterRegistry meterRegistry) {
+        this.records = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new RecordExpiry(properties.getTtl().toNanos(), properties.getInProgressTtl().toNanos()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, records, CACHE_NAME);
+    }
+
+    @Override
+    public IdempotencyRecord putIfAbsent(String key, IdempotencyRecord record) {
+        return records.asMap().putIfAbsent(key, record);
+    }
+
+    @Override
+    public void put(String key, IdempotencyRecord record) {
+        records.put(key, record);
+    }
+
+    @Override
+    public void remove(String key) {
+        records.invalidate(key);
+    }
+
+    private record RecordExpiry(long ttlNanos, long inProgressTtlNanos) implements Expiry<String, IdempotencyRecord> {
+
+        @Override
+        public long expireAfterCreate(String key, IdempotencyRecord record, long currentTime) {
+            return record.isInProgress() ? inProgressTtlNanos : ttlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, IdempotencyRecord record, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, record, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, IdempotencyRecord record, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.charly.loans.idempotency;
+
+/**
+ * Keeps {@link IdempotencyRecord}s by idempotency key. The local {@link CaffeineIdempotencyStore} is used unless
+ * another implementation is defined as a bean, e.g. one on a shared cache so retries landing on another instance are
+ * replayed as well.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * @param key    - scoped idempotency key
+     * @param record - record to store when the key is free
+     * @return the record already stored under the key, or null when the given one was stored
+     */
+    IdempotencyRecord putIfAbsent(String key, IdempotencyRecord record);
+
+    /**
+     * @param key    - scoped idempotency key
+     * @param record - record replacing the one stored under the key
+     */
+    void put(String key, IdempotencyRecord record);
+
+    /**
+     * @param key - scoped idempotency key to free
+     */
+    void remove(String key);
+}
@@ -0,0 +1,58 @@
+package com.charly.loans.mapper;
+
+import com.charly.loans.dto.PageDto;
+import com.charly.loans.exception.InvalidPageTokenException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Maps keyset pages to {@link PageDto}. The page token carries the primary key of the last row handed out, so the
+ * next page is read with {@code where id > :lastKey order by id} and costs the same however deep the client pages.
+ * Tokens are versioned to allow changing the format later without breaking clients that still hold an old one.
+ */
+public class PageMapper {
+
+    public static final long FIRST_PAGE_KEY = 0L;
+
+    private static final String TOKEN_VERSION = "v1:";
+
+    private PageMapper() {
+        // restrict instantiation
+    }
+
+    public static long mapToLastKey(String pageToken) {
+        if (pageToken == null || pageToken.isBlank()) {
+            return FIRST_PAGE_KEY;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.US_ASCII);
+            if (decoded.startsWith(TOKEN_VERSION)) {
+                return Long.parseLong(decoded.substring(TOKEN_VERSION.length()));
+            }
+        } catch (IllegalArgumentException ex) {
+            // not Base64 or no number after the version, reported below like any other unknown token
+        }
+        throw new InvalidPageTokenException(pageToken);
+    }
+
+    public static String mapToPageToken(long lastKey) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((TOKEN_VERSION + lastKey).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @param rows     - rows read with a limit of one more than the page size, the extra row only signals a next page
+     * @param pageSize - number of items to return
+     * @param key      - primary key of a row
+     * @param mapper   - maps a row to its item
+     * @return the page, with a next page token when there are more rows
+     */
+    public static <R, T> PageDto<T> mapToPageDto(List<R> rows, int pageSize, Function<R, Long> key, Function<R, T> mapper) {
+        boolean hasNext = rows.size() > pageSize;
+        List<R> page = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextPageToken = hasNext ? mapToPageToken(key.apply(page.get(pageSize - 1))) : null;
+        return new PageDto<>(page.stream().map(mapper).toList(), nextPageToken);
+    }
+}
@@ -0,0 +1,55 @@
+package com.charly.loans.outbox;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "outbox")
+public class OutboxProperties {
+
+    /**
+     * Pause between two relay runs once the outbox is drained. Bounds the delay between a commit and its event.
+     */
+    private Duration relayInterval = Duration.ofMillis(200);
+
+    /**
+     * Events read from the outbox, published and deleted at a time.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Topic that gets a heartbeat once the outbox is drained, so its consumers can tell how current they are while
+     * nothing changes. No heartbeats are published without one.
+     */
+    private String heartbeatTopic;
+
+    /**
+     * Minimum time between two heartbeats.
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(5);
+
+    /**
+     * Broker the relay publishes to unless an {@link EventBroker} bean is defined. The file broker never drops an
+     * event, so it is meant for local runs only.
+     */
+    private BrokerType broker = BrokerType.MEMORY;
+
+    /**
+     * Directory of the file broker, shared by every service publishing or consuming through it.
+     */
+    private String directory = System.getProperty("java.io.tmpdir") + "/eazybank-events";
+
+    /**
+     * Events the memory broker keeps per topic.
+     */
+    private int memoryRetention = 100_000;
+
+    public enum BrokerType {
+        MEMORY,
+        FILE
+    }
+}
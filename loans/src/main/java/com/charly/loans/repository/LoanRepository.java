@@ -1,16 +1,61 @@
 package com.charly.loans.repository;
 
 import com.charly.loans.entity.Loan;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface LoanRepository extends JpaRepository<Loan, Long> {
 
+    String EXPORT_FETCH_SIZE = "500";
+
     Optional<Loan> findByMobileNumber(String mobileNumber);
 
+    List<Loan> findByMobileNumberIn(Collection<String> mobileNumbers);
+
     Optional<Loan> findByLoanNumber(String loanNumber);
 
+    boolean existsByLoanNumber(String loanNumber);
+
+    /**
+     * Books the payment in a single conditional update, so concurrent payments of the same loan only queue on the row
+     * lock, never on a read-modify-write, and none of them is lost. Joins the transaction of the caller, if any, which
+     * then holds the lock until it commits. Bypasses the auditing listener, hence the explicit audit columns.
+     *
+     * @return 1 when booked, 0 when the loan does not exist or the amount exceeds its outstanding amount
+     */
+    @Transactional
+    @Modifying
+    @Query("update Loan l set l.amountPaid = l.amountPaid + :amount, l.outstandingAmount = l.outstandingAmount - :amount, "
+            + "l.updatedAt = :updatedAt, l.updatedBy = :updatedBy where l.loanNumber = :loanNumber and l.outstandingAmount >= :amount")
+    int repay(@Param("loanNumber") String loanNumber, @Param("amount") int amount, @Param("updatedAt") LocalDateTime updatedAt, @Param("updatedBy") String updatedBy);
+
+    /**
+     * Keyset page: seeks to the first loan id after the given one through the primary key, so deep pages cost the
+     * same as the first.
+     */
+    List<Loan> findByLoanIdGreaterThanOrderByLoanIdAsc(Long loanId, Limit limit);
+
+    /**
+     * Every loan, read through a forward-only cursor {@value #EXPORT_FETCH_SIZE} rows at a time. Has to be consumed
+     * inside a transaction and closed afterwards.
+     */
+    @Query("select l from Loan l order by l.loanId")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE), @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<Loan> streamAll();
+
 }
@@ -1,6 +1,12 @@
 package com.charly.loans.service;
 
 import com.charly.loans.dto.LoanDto;
+import com.charly.loans.dto.PageDto;
+import com.charly.loans.etag.Versioned;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
 
 public interface LoanService {
 
@@ -15,6 +21,37 @@ public interface LoanService {
      */
     LoanDto getLoan(String mobileNumber);
 
+    /**
+     * @param mobileNumber - Input mobile Number
+     * @return Loan Details based on a given mobileNumber, mapped only when asked for, with the weak ETag of the loan
+     */
+    Versioned<LoanDto> getVersionedLoan(String mobileNumber);
+
+    /**
+     * @param mobileNumbers - Input mobile Numbers
+     * @return Loan Details of every given mobileNumber that has a loan, fetched with a single query
+     */
+    List<LoanDto> getLoans(List<String> mobileNumbers);
+
+    /**
+     * @param pageToken - Token of the page to fetch, the first page when absent
+     * @param pageSize  - Maximum number of loans to return
+     * @return Loan Details in loan id order, with the token of the next page
+     */
+    PageDto<LoanDto> getLoans(String pageToken, int pageSize);
+
+    /**
+     * @param outputStream - Stream every loan is written to as one line of JSON, in loan id order
+     */
+    void exportLoans(OutputStream outputStream) throws IOException;
+
+    /**
+     * @param loanNumber - Loan Number of the repaid loan
+     * @param amount     - Amount paid, at most the outstanding amount
+     * @return Loan Details after the payment
+     */
+    LoanDto repayLoan(String loanNumber, int amount);
+
     /**
      * @param loansDto - LoansDto Object
      * @return boolean indicating if the update of card details is successful or not
@@ -2,17 +2,40 @@ package com.charly.loans.service.impl;
 
 import com.charly.loans.constant.LoanConstant;
 import com.charly.loans.dto.LoanDto;
+import com.charly.loans.dto.PageDto;
 import com.charly.loans.entity.Loan;
+import com.charly.loans.etag.Versioned;
 import com.charly.loans.exception.LoanAlreadyExistsException;
+import com.charly.loans.exception.LoanOverpaymentException;
 import com.charly.loans.exception.ResourceNotFoundException;
+import com.charly.loans.generator.NumberGenerator;
 import com.charly.loans.mapper.LoanMapper;
+import com.charly.loans.mapper.PageMapper;
+import com.charly.loans.outbox.EventType;
+import com.charly.loans.outbox.OutboxWriter;
 import com.charly.loans.repository.LoanRepository;
 import com.charly.loans.service.LoanService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
 import lombok.AllArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Optional;
-import java.util.Random;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import static com.charly.loans.constant.LoanConstant.LOAN_EVENTS;
 
 @Service
 @AllArgsConstructor
@@ -20,19 +43,44 @@ public class LoanServiceImpl implements LoanService {
 
     private LoanRepository loanRepository;
 
+    private NumberGenerator loanNumberGenerator;
+
+    private ObjectMapper objectMapper;
+
+    private EntityManager entityManager;
+
+    private AuditorAware<String> auditAwareImpl;
+
+    private TransactionTemplate transactionTemplate;
+
+    private OutboxWriter outboxWriter;
+
     @Override
     public void createLoan(String mobileNumber) {
-        Optional<Loan> optionalLoans = loanRepository.findByMobileNumber(mobileNumber);
-        if (optionalLoans.isPresent()) {
-            throw new LoanAlreadyExistsException("Loan already registered with given mobileNumber " + mobileNumber);
+        // numbered before the transaction opens, see NumberGenerator
+        Loan newLoan = createNewLoan(mobileNumber);
+        // the unique index on mobile_number detects duplicates, including concurrent creates, in the insert itself
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                loanRepository.saveAndFlush(newLoan);
+                outboxWriter.append(LOAN_EVENTS, mobileNumber, EventType.CREATED, LoanMapper.mapToLoansDto(newLoan, new LoanDto()));
+            });
+        } catch (DataIntegrityViolationException ex) {
+            if (isDuplicateMobileNumber(ex)) {
+                throw new LoanAlreadyExistsException("Loan already registered with given mobileNumber " + mobileNumber);
+            }
+            throw ex;
         }
-        loanRepository.save(createNewLoan(mobileNumber));
+    }
+
+    private static boolean isDuplicateMobileNumber(DataIntegrityViolationException ex) {
+        String message = ex.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains("ux_loans_mobile_number");
     }
 
     private Loan createNewLoan(String mobileNumber) {
         Loan newLoan = new Loan();
-        long randomLoanNumber = 100000000000L + new Random().nextInt(900000000);
-        newLoan.setLoanNumber(Long.toString(randomLoanNumber));
+        newLoan.setLoanNumber(Long.toString(loanNumberGenerator.next()));
         newLoan.setMobileNumber(mobileNumber);
         newLoan.setLoanType(LoanConstant.HOME_LOAN);
         newLoan.setTotalLoan(LoanConstant.NEW_LOAN_LIMIT);
@@ -43,22 +91,86 @@ public class LoanServiceImpl implements LoanService {
 
     @Override
     public LoanDto getLoan(String mobileNumber) {
-        Loan loans = loanRepository.findByMobileNumber(mobileNumber).orElseThrow(() -> new ResourceNotFoundException("Loan", "mobileNumber", mobileNumber));
-        return LoanMapper.mapToLoansDto(loans, new LoanDto());
+        return getVersionedLoan(mobileNumber).body().get();
+    }
+
+    @Override
+    public Versioned<LoanDto> getVersionedLoan(String mobileNumber) {
+        Loan loan = loanRepository.findByMobileNumber(mobileNumber).orElseThrow(() -> new ResourceNotFoundException("Loan", "mobileNumber", mobileNumber));
+        return new Versioned<>(Versioned.weakETag(loan.getLoanId(), loan.getCreatedAt(), loan.getUpdatedAt()), () -> LoanMapper.mapToLoansDto(loan, new LoanDto()));
+    }
+
+    @Override
+    public List<LoanDto> getLoans(List<String> mobileNumbers) {
+        return loanRepository.findByMobileNumberIn(new LinkedHashSet<>(mobileNumbers)).stream()
+                .map(loan -> LoanMapper.mapToLoansDto(loan, new LoanDto()))
+                .toList();
+    }
+
+    @Override
+    public PageDto<LoanDto> getLoans(String pageToken, int pageSize) {
+        List<Loan> loans = loanRepository.findByLoanIdGreaterThanOrderByLoanIdAsc(PageMapper.mapToLastKey(pageToken), Limit.of(pageSize + 1));
+        return PageMapper.mapToPageDto(loans, pageSize, Loan::getLoanId, loan -> LoanMapper.mapToLoansDto(loan, new LoanDto()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportLoans(OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(LoanDto.class);
+        try (Stream<Loan> loans = loanRepository.streamAll()) {
+            for (Iterator<Loan> iterator = loans.iterator(); iterator.hasNext(); ) {
+                Loan loan = iterator.next();
+                outputStream.write(writer.writeValueAsBytes(LoanMapper.mapToLoansDto(loan, new LoanDto())));
+                outputStream.write('\n');
+                // written rows are never read again, keeps the persistence context from growing with the table
+                entityManager.detach(loan);
+            }
+        }
     }
 
     @Override
+    @Transactional
+    public LoanDto repayLoan(String loanNumber, int amount) {
+        if (loanRepository.repay(loanNumber, amount, LocalDateTime.now(), auditor()) == 0) {
+            if (!loanRepository.existsByLoanNumber(loanNumber)) {
+                throw new ResourceNotFoundException("Loan", "LoanNumber", loanNumber);
+            }
+            throw new LoanOverpaymentException(loanNumber, amount);
+        }
+        Loan loan = loanRepository.findByLoanNumber(loanNumber).orElseThrow(() -> new ResourceNotFoundException("Loan", "LoanNumber", loanNumber));
+        LoanDto loanDto = LoanMapper.mapToLoansDto(loan, new LoanDto());
+        outboxWriter.append(LOAN_EVENTS, loanDto.getMobileNumber(), EventType.UPDATED, loanDto);
+        return loanDto;
+    }
+
+    private String auditor() {
+        return auditAwareImpl.getCurrentAuditor().orElse(null);
+    }
+
+    @Override
+    @Transactional
     public boolean updateLoan(LoanDto loansDto) {
         Loan loans = loanRepository.findByLoanNumber(loansDto.getLoanNumber()).orElseThrow(() -> new ResourceNotFoundException("Loan", "LoanNumber", loansDto.getLoanNumber()));
+        String previousMobileNumber = loans.getMobileNumber();
         LoanMapper.mapToLoans(loansDto, loans);
-        loanRepository.save(loans);
+        loanRepository.saveAndFlush(loans);
+        LoanDto updated = LoanMapper.mapToLoansDto(loans, new LoanDto());
+        if (!previousMobileNumber.equals(updated.getMobileNumber())) {
+            // consumers key loans by mobile number, the loan moves to another key
+            outboxWriter.append(LOAN_EVENTS, previousMobileNumber, EventType.DELETED, updated);
+        }
+        outboxWriter.append(LOAN_EVENTS, updated.getMobileNumber(), EventType.UPDATED, updated);
         return true;
     }
 
     @Override
+    @Transactional
     public boolean deleteLoan(String mobileNumber) {
         Loan loans = loanRepository.findByMobileNumber(mobileNumber).orElseThrow(() -> new ResourceNotFoundException("Loan", "mobileNumber", mobileNumber));
+        LoanDto deleted = LoanMapper.mapToLoansDto(loans, new LoanDto());
         loanRepository.deleteById(loans.getLoanId());
+        loanRepository.flush();
+        outboxWriter.append(LOAN_EVENTS, mobileNumber, EventType.DELETED, deleted);
         return true;
     }
 }
@@ -0,0 +1,26 @@
+package com.charly.loans.sql;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Resolves the query tag of the sql.queries timers to the statement it stands for.
+ */
+@Component
+@Endpoint(id = "queryshapes")
+public class QueryShapesEndpoint {
+
+    private final QueryShapes queryShapes;
+
+    public QueryShapesEndpoint(QueryShapes queryShapes) {
+        this.queryShapes = queryShapes;
+    }
+
+    @ReadOperation
+    public Map<String, String> queryShapes() {
+        return queryShapes.shapes();
+    }
+}
@@ -0,0 +1,62 @@
+package com.charly.loans.sql;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every statement into the timer of its shape and logs the slow ones and a sample of the rest.
+ * Bind parameters are never logged, they carry customer data.
+ */
+@Component
+public class SqlObservabilityListener implements QueryExecutionListener {
+
+    private static final Logger slowLog = LoggerFactory.getLogger("sql.slow");
+
+    private static final Logger sampledLog = LoggerFactory.getLogger("sql.sampled");
+
+    private static final String START_NANOS = "sqlObservability.startNanos";
+
+    private final QueryShapes queryShapes;
+
+    private final long slowQueryThresholdNanos;
+
+    private final double sampleRate;
+
+    public SqlObservabilityListener(QueryShapes queryShapes, SqlObservabilityProperties properties) {
+        this.queryShapes = queryShapes;
+        this.slowQueryThresholdNanos = properties.getSlowQueryThreshold().toNanos();
+        this.sampleRate = properties.getSampleRate();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long start = execInfo.getCustomValue(START_NANOS, Long.class);
+        if (start == null || queryInfoList.isEmpty()) {
+            return;
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        String sql = queryInfoList.get(0).getQuery();
+        QueryShapes.Shape shape = queryShapes.of(sql);
+        shape.record(elapsedNanos, execInfo.isSuccess());
+
+        if (elapsedNanos >= slowQueryThresholdNanos) {
+            slowLog.warn("Slow query took {} ms, shape {}, batch size {}: {}", TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    shape.id(), execInfo.isBatch() ? execInfo.getBatchSize() : 1, sql);
+        } else if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            sampledLog.info("Query took {} us, shape {}: {}", TimeUnit.NANOSECONDS.toMicros(elapsedNanos), shape.id(), sql);
+        }
+    }
+}
@@ -0,0 +1,3 @@
+CREATE UNIQUE INDEX `ux_loans_mobile_number` ON `loans` (`mobile_number`);
+
+CREATE UNIQUE INDEX `ux_loans_loan_number` ON `loans` (`loan_number`);
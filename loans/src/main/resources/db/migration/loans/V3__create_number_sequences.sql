@@ -0,0 +1,10 @@
+CREATE TABLE IF NOT EXISTS `number_sequences`
+(
+    `sequence_name` varchar(50) NOT NULL,
+    `next_value`    bigint      NOT NULL,
+    `max_value`     bigint      NOT NULL,
+    PRIMARY KEY (`sequence_name`)
+);
+
+INSERT INTO `number_sequences` (`sequence_name`, `next_value`, `max_value`)
+VALUES ('loan_number', 200000000000, 999999999999);
@@ -0,0 +1,2 @@
+ALTER TABLE `loans` MODIFY `created_at` datetime(6) NOT NULL;
+ALTER TABLE `loans` MODIFY `updated_at` datetime(6) DEFAULT NULL;
@@ -0,0 +1,101 @@
+package com.charly.loans.outbox;
+
+import com.charly.loans.audit.AuditAwareImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static com.charly.loans.constant.LoanConstant.LOAN_EVENTS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against H2 in MySQL mode, migrated with the production Flyway scripts. Not transactional, so the relays see
+ * each other's claims like replicas sharing a database do.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.cloud.config.enabled=false",
+        "spring.cloud.config.import-check.enabled=false"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(AuditAwareImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxRelayTest {
+
+    private static final int EVENTS = 1_000;
+
+    private static final int REPLICAS = 2;
+
+    private static final String INSERT_EVENT = "INSERT INTO outbox_events (aggregate_type, aggregate_id, event_type, payload, occurred_at) VALUES (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final InMemoryEventBroker eventBroker = new InMemoryEventBroker(10 * EVENTS);
+
+    @Test
+    void replicasRelayingTheSameOutboxPublishEveryEventOnce() throws Exception {
+        LocalDateTime occurredAt = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.MICROS);
+        jdbcTemplate.batchUpdate(INSERT_EVENT, IntStream.range(0, EVENTS)
+                .mapToObj(i -> new Object[]{LOAN_EVENTS, String.valueOf(i), EventType.UPDATED.name(), "{}", occurredAt})
+                .toList());
+
+        ExecutorService executor = Executors.newFixedThreadPool(REPLICAS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> replicas = IntStream.range(0, REPLICAS).mapToObj(replica -> relay())
+                    .map(relay -> executor.submit(() -> {
+                        start.await();
+                        int relayed = 0;
+                        for (int batch = relay.relayBatch(); batch > 0; batch = relay.relayBatch()) {
+                            relayed += batch;
+                        }
+                        return relayed;
+                    }))
+                    .toList();
+            start.countDown();
+            int relayed = 0;
+            for (Future<Integer> replica : replicas) {
+                relayed += replica.get(30, TimeUnit.SECONDS);
+            }
+            assertThat(relayed).isEqualTo(EVENTS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<ChangeEvent> published = eventBroker.poll(LOAN_EVENTS, 0, 10 * EVENTS).events();
+        assertThat(published).hasSize(EVENTS);
+        assertThat(published).extracting(ChangeEvent::eventId).doesNotHaveDuplicates();
+        assertThat(published).extracting(ChangeEvent::occurredAt).containsOnly(occurredAt.toInstant(ZoneOffset.UTC));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_events", Integer.class)).isZero();
+    }
+
+    private OutboxRelay relay() {
+        OutboxProperties properties = new OutboxProperties();
+        properties.setBatchSize(50);
+        return new OutboxRelay(jdbcTemplate, transactionManager, eventBroker, new ObjectMapper().findAndRegisterModules(),
+                properties, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,103 @@
+package com.charly.loans.repository;
+
+import com.charly.loans.audit.AuditAwareImpl;
+import com.charly.loans.entity.Loan;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against H2 in MySQL mode, migrated with the production Flyway scripts. Not transactional, so every payment
+ * commits on its own connection like it does behind the controller.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:loans;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.cloud.config.enabled=false",
+        "spring.cloud.config.import-check.enabled=false"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(AuditAwareImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LoanRepositoryTest {
+
+    private static final int TOTAL_LOAN = 12_500;
+
+    private static final int PAYMENT = 1_000;
+
+    private static final int PAYMENTS = 20;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Test
+    void concurrentPaymentsAreBookedUntilTheOutstandingAmountRunsOut() throws Exception {
+        Loan loan = loanRepository.save(loan("4354437687", "100646930341"));
+
+        int booked = repayConcurrently(loan.getLoanNumber());
+
+        Loan repaid = loanRepository.findByLoanNumber(loan.getLoanNumber()).orElseThrow();
+        assertThat(booked).isEqualTo(TOTAL_LOAN / PAYMENT);
+        assertThat(PAYMENTS - booked).as("rejected payments").isEqualTo(PAYMENTS - TOTAL_LOAN / PAYMENT);
+        assertThat(repaid.getAmountPaid()).isEqualTo(booked * PAYMENT);
+        assertThat(repaid.getOutstandingAmount()).isEqualTo(TOTAL_LOAN - booked * PAYMENT);
+    }
+
+    @Test
+    void overpaymentIsRejectedWithoutChangingTheBalance() {
+        Loan loan = loanRepository.save(loan("4354437688", "100646930342"));
+
+        int booked = loanRepository.repay(loan.getLoanNumber(), TOTAL_LOAN + 1, LocalDateTime.now(), "LOANS_MS");
+
+        Loan unchanged = loanRepository.findByLoanNumber(loan.getLoanNumber()).orElseThrow();
+        assertThat(booked).isZero();
+        assertThat(unchanged.getAmountPaid()).isZero();
+        assertThat(unchanged.getOutstandingAmount()).isEqualTo(TOTAL_LOAN);
+    }
+
+    private int repayConcurrently(String loanNumber) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(PAYMENTS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> payments = new ArrayList<>();
+            for (int i = 0; i < PAYMENTS; i++) {
+                payments.add(executor.submit(() -> {
+                    start.await();
+                    return loanRepository.repay(loanNumber, PAYMENT, LocalDateTime.now(), "LOANS_MS");
+                }));
+            }
+            start.countDown();
+            int booked = 0;
+            for (Future<Integer> payment : payments) {
+                booked += payment.get(10, TimeUnit.SECONDS);
+            }
+            return booked;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Loan loan(String mobileNumber, String loanNumber) {
+        Loan loan = new Loan();
+        loan.setMobileNumber(mobileNumber);
+        loan.setLoanNumber(loanNumber);
+        loan.setLoanType("Home Loan");
+        loan.setTotalLoan(TOTAL_LOAN);
+        loan.setOutstandingAmount(TOTAL_LOAN);
+        return loan;
+    }
+}